@@ -0,0 +1,74 @@
+package com.example.benchmark;
+
+import com.example.SpringbootTestingApplication;
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against a fresh embedded H2 database and fills it with students for the benchmarks.
+ */
+final class BenchmarkApplication {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        return start(webApplicationType, context -> {
+        }, properties);
+    }
+
+    /**
+     * Like {@link #start(WebApplicationType, String...)}, with {@code initializer} applied to the context before it is
+     * refreshed, e.g. to register a bean post processor.
+     */
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                                String... properties) {
+        return new SpringApplicationBuilder(SpringbootTestingApplication.class)
+                .initializers(initializer)
+                .web(webApplicationType)
+                .properties("spring.main.banner-mode=off",
+                        "spring.datasource.generate-unique-name=true",
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "student.access-log.sample-rate=0")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Inserts {@code rows} students through the bulk path and returns the id of the first one; ids are consecutive.
+     * Row {@code i} has first name {@code first<i>}, last name {@code last<i>} and email {@code student<i>@example.com}.
+     */
+    static long seed(StudentService studentService, int rows) {
+        long firstId = -1;
+        for (int from = 0; from < rows; from += SEED_BATCH_SIZE) {
+            List<Student> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, rows); i++) {
+                batch.add(student(i));
+            }
+            List<Student> saved = studentService.saveStudents(batch);
+            if (firstId < 0) {
+                firstId = saved.get(0).getId();
+            }
+        }
+        return firstId;
+    }
+
+    static Student student(long i) {
+        return Student.builder()
+                      .firstName("first" + i)
+                      .lastName("last" + i)
+                      .email("student" + i + "@example.com")
+                      .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking HTTP client for benchmarks that go through a real socket and Tomcat.
+ */
+final class BenchmarkHttp {
+
+    private final String baseUrl;
+
+    BenchmarkHttp(ConfigurableApplicationContext context) {
+        this(Integer.parseInt(context.getEnvironment().getProperty("local.server.port")));
+    }
+
+    BenchmarkHttp(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    int get(String path) throws IOException {
+        return send("GET", path, null, null);
+    }
+
+    int post(String path, String contentType, String body) throws IOException {
+        return send("POST", path, contentType, body);
+    }
+
+    int send(String method, String path, String contentType, String body) throws IOException {
+        return send(method, path, contentType, body, null);
+    }
+
+    /**
+     * The response body of a successful POST, or null for any other status.
+     */
+    String postForBody(String path, String contentType, String body) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        int status = send("POST", path, contentType, body, response);
+        return status < 300 ? new String(response.toByteArray(), StandardCharsets.UTF_8) : null;
+    }
+
+    private int send(String method, String path, String contentType, String body, OutputStream response) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", contentType);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            // drain the body so the keep-alive connection can be reused, keeping it if asked for
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (in != null) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        if (response != null) {
+                            response.write(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+            return status;
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.benchmark;
+
+import com.example.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over real HTTP: 64 client threads against a small Tomcat pool, with handlers either blocking the
+ * container thread ({@code async=false}) or running on the bounded student executor ({@code async=true}).
+ * Compare throughput between the two; {@code -t} changes the client concurrency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class StudentConcurrencyBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    @Param({"8"})
+    private int tomcatThreads;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkHttp http;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "spring.profiles.active=" + (async ? "async" : "default"),
+                "spring.cache.type=none",
+                "server.tomcat.threads.max=" + tomcatThreads);
+        firstId = BenchmarkApplication.seed(context.getBean(StudentService.class), rows);
+        http = new BenchmarkHttp(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getStudent() throws IOException {
+        return http.get("/api/student/" + (firstId + ThreadLocalRandom.current().nextLong(rows)));
+    }
+
+    @Benchmark
+    public int getStudentsPage() throws IOException {
+        return http.get("/api/student?limit=100&after=" + (firstId + ThreadLocalRandom.current().nextLong(rows)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.benchmark;
+
+import com.example.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.autoconfigure.web.servlet.SpringBootMockMvcBuilderCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end request handling through the full MVC stack (the application's servlet filters in their registered
+ * order, argument resolution, message conversion) via MockMvc, without socket I/O. Lookup caches are off so every request reaches the database.
+ * <p>
+ * {@code -p openInView=true} restores the old behaviour of holding the connection for the whole request. Each trial
+ * ends by printing the mean Hikari connection usage (how long a connection stayed borrowed) of its requests; add
+ * {@code -prof gc} to compare allocations per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentControllerBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean openInView;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private long firstId;
+    private Timer connectionUsage;
+    private long seedUsageCount;
+    private double seedUsageMillis;
+    private final AtomicLong nextRow = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "spring.cache.type=none",
+                "spring.jpa.open-in-view=" + openInView);
+        firstId = BenchmarkApplication.seed(context.getBean(StudentService.class), rows);
+        mockMvc = mockMvc((WebApplicationContext) context);
+        objectMapper = context.getBean(ObjectMapper.class);
+        nextRow.set(rows);
+        connectionUsage = context.getBean(MeterRegistry.class).get("hikaricp.connections.usage").timer();
+        seedUsageCount = connectionUsage.count();
+        seedUsageMillis = connectionUsage.totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long count = connectionUsage.count() - seedUsageCount;
+        double millis = connectionUsage.totalTime(TimeUnit.MILLISECONDS) - seedUsageMillis;
+        System.out.printf("hikaricp.connections.usage: count=%d mean=%.3fms%n", count, count == 0 ? 0 : millis / count);
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getStudent() throws Exception {
+        return perform(MockMvcRequestBuilders.get("/api/student/{id}", firstId + randomRow()));
+    }
+
+    @Benchmark
+    public MvcResult getStudentsPage() throws Exception {
+        return perform(MockMvcRequestBuilders.get("/api/student")
+                                             .param("after", String.valueOf(firstId + randomRow()))
+                                             .param("limit", "100"));
+    }
+
+    @Benchmark
+    public MvcResult createStudent() throws Exception {
+        return perform(MockMvcRequestBuilders.post("/api/student")
+                                             .contentType(MediaType.APPLICATION_JSON)
+                                             .content(objectMapper.writeValueAsBytes(BenchmarkApplication.student(nextRow.getAndIncrement()))));
+    }
+
+    // registers the filters like @AutoConfigureMockMvc does, honouring their order and URL patterns
+    private static MockMvc mockMvc(WebApplicationContext context) {
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup(context);
+        SpringBootMockMvcBuilderCustomizer filters = new SpringBootMockMvcBuilderCustomizer(context);
+        filters.setPrint(MockMvcPrint.NONE);
+        filters.customize(builder);
+        return builder.build();
+    }
+
+    // the handlers return futures, so the request only completes (and releases what it holds) on the async dispatch
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn();
+        }
+        return result;
+    }
+
+    private long randomRow() {
+        return ThreadLocalRandom.current().nextLong(rows);
+    }
+}
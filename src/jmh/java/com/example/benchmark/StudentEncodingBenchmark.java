@@ -0,0 +1,94 @@
+package com.example.benchmark;
+
+import com.example.entity.Student;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Round trip of student lists through each wire format the API negotiates, with and without gzip. Setup prints the
+ * encoded and gzipped size of every combination, which is the number to weigh against the CPU time measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentEncodingBenchmark {
+
+    private static final TypeReference<List<Student>> STUDENT_LIST = new TypeReference<List<Student>>() {
+    };
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    @Param({"none", "gzip"})
+    private String compression;
+
+    private ObjectMapper objectMapper;
+    private List<Student> students;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = mapper(format);
+        students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Student student = BenchmarkApplication.student(i);
+            student.setId(i + 1);
+            students.add(student);
+        }
+        encoded = serialize();
+        byte[] plain = objectMapper.writeValueAsBytes(students);
+        System.out.printf("%n%s x%d: %d bytes, %d gzipped%n", format, size, plain.length, gzip(plain).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = "gzip".equals(compression) ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, students);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<Student> deserialize() throws IOException {
+        InputStream bytes = new ByteArrayInputStream(encoded);
+        try (InputStream in = "gzip".equals(compression) ? new GZIPInputStream(bytes) : bytes) {
+            return objectMapper.readValue(in, STUDENT_LIST);
+        }
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor().build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+
+    private static byte[] gzip(byte[] plain) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(plain);
+        }
+        return bytes.toByteArray();
+    }
+}
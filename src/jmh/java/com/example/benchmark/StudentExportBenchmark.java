@@ -0,0 +1,100 @@
+package com.example.benchmark;
+
+import com.example.export.StudentExportFormat;
+import com.example.export.StudentExporter;
+import com.example.service.StudentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full table exports against embedded H2, written to a stream that discards the bytes, next to the JSON listing of
+ * {@code GET /api/student} for comparison. Add {@code -prof gc} to see that allocation per row stays flat as
+ * {@code rows} grows, e.g. {@code -p rows=1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StudentExportBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentExporter studentExporter;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "student.export.snapshot-directory=" + Files.createTempDirectory("student-export"));
+        studentService = context.getBean(StudentService.class);
+        studentExporter = context.getBean(StudentExporter.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        BenchmarkApplication.seed(studentService, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long exportCsv() throws IOException {
+        return studentExporter.export(StudentExportFormat.CSV, new DiscardingOutputStream());
+    }
+
+    @Benchmark
+    public long exportNdjson() throws IOException {
+        return studentExporter.export(StudentExportFormat.NDJSON, new DiscardingOutputStream());
+    }
+
+    @Benchmark
+    public long listJson() throws IOException {
+        DiscardingOutputStream out = new DiscardingOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            studentService.streamStudentsAfter(0, student -> {
+                try {
+                    objectMapper.writeValue(generator, student);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+        return out.count;
+    }
+
+    @Benchmark
+    public Path snapshotUnchanged() throws IOException {
+        return studentExporter.snapshot(StudentExportFormat.CSV);
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
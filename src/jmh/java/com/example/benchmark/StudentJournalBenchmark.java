@@ -0,0 +1,61 @@
+package com.example.benchmark;
+
+import com.example.entity.Student;
+import com.example.journal.StudentChangeJournal;
+import com.example.service.StudentChangedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends to the change journal, left to the page cache or forced to disk, and tailing it 1000 changes at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentJournalBenchmark {
+
+    private static final int READ_BATCH = 1000;
+
+    @Param({"false", "true"})
+    private boolean force;
+
+    private Path directory;
+    private StudentChangeJournal journal;
+    private StudentChangedEvent event;
+    private long readFrom;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("student-journal");
+        journal = new StudentChangeJournal(directory, 64 * 1024 * 1024, 4, force);
+        Student student = BenchmarkApplication.student(0);
+        student.setId(1);
+        event = StudentChangedEvent.saved(student);
+        for (int i = 0; i < READ_BATCH; i++) {
+            journal.append(event);
+        }
+        readFrom = journal.getStartOffset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        return journal.append(event);
+    }
+
+    @Benchmark
+    public long read(Blackhole blackhole) {
+        return journal.read(readFrom, READ_BATCH, blackhole::consume);
+    }
+}
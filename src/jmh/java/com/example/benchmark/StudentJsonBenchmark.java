@@ -0,0 +1,53 @@
+package com.example.benchmark;
+
+import com.example.entity.Student;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of student lists, configured the way Spring Boot configures its ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentJsonBenchmark {
+
+    private static final TypeReference<List<Student>> STUDENT_LIST = new TypeReference<List<Student>>() {
+    };
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Student> students;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Student student = BenchmarkApplication.student(i);
+            student.setId(i + 1);
+            students.add(student);
+        }
+        json = objectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public List<Student> deserialize() throws IOException {
+        return objectMapper.readValue(json, STUDENT_LIST);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.entity.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the log statements on the request path, written synchronously through Spring Boot's console
+ * pattern to a discarding stream so only formatting and encoding are measured. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}: {@code entityLine} is the old per-request {@code log.info("Creating Student {}", student)}
+ * with every field printed, {@code idLine} the same line after {@code Student#toString} was reduced to the id,
+ * {@code accessLine} one access log line and {@code disabledDebug} a debug statement below the logger level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StudentLoggingBenchmark {
+
+    private static final String CONSOLE_PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private Student student;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(CONSOLE_PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        appender.start();
+        logger = loggerContext.getLogger(StudentLoggingBenchmark.class);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        student = BenchmarkApplication.student(123_456);
+        student.setId(123_456);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void entityLine() {
+        logger.info("Creating Student Student(id={}, firstName={}, lastName={}, email={})",
+                student.getId(), student.getFirstName(), student.getLastName(), student.getEmail());
+    }
+
+    @Benchmark
+    public void idLine() {
+        logger.info("Creating Student {}", student);
+    }
+
+    @Benchmark
+    public void accessLine() {
+        logger.info("method={} uri={} status={} durationMs={}", "GET", "/api/student/{id}", 200, 3L);
+    }
+
+    @Benchmark
+    public void disabledDebug() {
+        logger.debug("Creating Student {}", student);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.benchmark;
+
+import com.example.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page view that needs {@code pageSize} students, over real HTTP from 32 client threads with the caches off: one
+ * {@code GET /api/student/{id}} per student ({@code fanOut}) or a single {@code GET /api/student?ids=} ({@code multiGet}).
+ * With {@code coalescing=true} the single lookups of all clients are batched by the lookup coalescer. Ids are drawn
+ * from the first {@code hotRows} students, so concurrent pages ask for the same ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class StudentLookupBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"1000"})
+    private int hotRows;
+
+    @Param({"20"})
+    private int pageSize;
+
+    @Param({"false", "true"})
+    private boolean coalescing;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkHttp http;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "spring.cache.type=none",
+                "student.coalescing.enabled=" + coalescing);
+        firstId = BenchmarkApplication.seed(context.getBean(StudentService.class), rows);
+        http = new BenchmarkHttp(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int fanOut() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int status = 0;
+        for (int i = 0; i < pageSize; i++) {
+            status += http.get("/api/student/" + (firstId + random.nextLong(hotRows)));
+        }
+        return status;
+    }
+
+    @Benchmark
+    public int multiGet() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < pageSize; i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            ids.append(firstId + random.nextLong(hotRows));
+        }
+        return http.get("/api/student?ids=" + ids);
+    }
+}
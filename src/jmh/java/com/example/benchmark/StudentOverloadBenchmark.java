@@ -0,0 +1,188 @@
+package com.example.benchmark;
+
+import com.example.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-loop overload test over real HTTP against a slow database: requests arrive at a fixed rate whether or not
+ * earlier ones were answered, as they do from many independent users, 90% single lookups and 10% listings streaming
+ * {@code listingRows} students. Every connection taken from the pool of {@code poolSize} is held {@code dbDelayMillis}
+ * longer than needed, which puts the capacity near {@code poolSize * 1000 / dbDelayMillis} requests per second.
+ * {@code rate} should be that capacity: the highest rate answered within {@code timeoutMillis} with
+ * {@code overload=1 limited=false}, found by raising it until responses come back late. Each iteration offers
+ * {@code overload} times that for {@code seconds} and prints the goodput, responses with 2xx within
+ * {@code timeoutMillis}, per kind of request, next to what was shed with 503 and what came back too late or failed.
+ * Without the concurrency limit ({@code limited=false}) goodput collapses under overload as every request queues
+ * for a connection behind the others; with it goodput should stay close to {@code rate}, with listings shed before
+ * lookups. The iteration time reported by JMH, also printed as {@code elapsed}, is the test duration; well beyond
+ * {@code seconds} plus {@code timeoutMillis} it means the generator could not offer the rate on this machine, so the
+ * defaults keep the capacity low.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class StudentOverloadBenchmark {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"200"})
+    private int listingRows;
+
+    @Param({"10"})
+    private int poolSize;
+
+    @Param({"100"})
+    private int dbDelayMillis;
+
+    @Param({"80"})
+    private int rate;
+
+    @Param({"1", "5"})
+    private int overload;
+
+    @Param({"false", "true"})
+    private boolean limited;
+
+    @Param({"250ms"})
+    private String latencyThreshold;
+
+    @Param({"10"})
+    private int seconds;
+
+    @Param({"1000"})
+    private int timeoutMillis;
+
+    private ConfigurableApplicationContext context;
+    private ConnectionProvider connections;
+    private WebClient client;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                initializing -> initializing.getBeanFactory().addBeanPostProcessor(new SlowDatabase(dbDelayMillis)),
+                "spring.cache.type=none",
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.datasource.hikari.minimum-idle=" + poolSize,
+                "student.concurrency-limit.enabled=" + limited,
+                "student.concurrency-limit.read.latency-threshold=" + latencyThreshold);
+        firstId = BenchmarkApplication.seed(context.getBean(StudentService.class), rows);
+        connections = ConnectionProvider.builder("overload").maxConnections(20_000).pendingAcquireMaxCount(-1).build();
+        client = WebClient.builder()
+                          .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                          .baseUrl("http://localhost:" + context.getEnvironment().getProperty("local.server.port"))
+                          .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connections.dispose();
+        context.close();
+    }
+
+    @Benchmark
+    public long overload() {
+        Counts counts = new Counts();
+        long offered = (long) rate * overload;
+        long ticksPerSecond = 1000 / TICK.toMillis();
+        // spreads the offered rate over the ticks of a second, so rates below one request per tick are offered too
+        long start = System.nanoTime();
+        Flux.interval(TICK)
+            .take(seconds * ticksPerSecond)
+            .flatMap(tick -> Flux.range(0, (int) ((tick + 1) * offered / ticksPerSecond - tick * offered / ticksPerSecond))
+                                 .flatMap(i -> send(counts)), Integer.MAX_VALUE)
+            .blockLast();
+        System.out.printf("%noffered=%d/s goodput=%d/s (lookups=%d/s listings=%d/s) rejected=%d/s late=%d/s failed=%d/s elapsed=%.1fs%n",
+                offered, (counts.lookups.get() + counts.listings.get()) / seconds, counts.lookups.get() / seconds,
+                counts.listings.get() / seconds, counts.rejected.get() / seconds, counts.late.get() / seconds,
+                counts.failed.get() / seconds, (System.nanoTime() - start) / 1e9);
+        return counts.lookups.get() + counts.listings.get();
+    }
+
+    private Mono<Integer> send(Counts counts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean listing = random.nextInt(10) == 0;
+        String uri = listing ? "/api/student?after=" + (firstId + rows - listingRows - 1)
+                : "/api/student/" + (firstId + random.nextLong(rows));
+        return client.get()
+                     .uri(uri)
+                     .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                     .timeout(Duration.ofMillis(timeoutMillis))
+                     .doOnNext(status -> {
+                         if (status >= 200 && status < 300) {
+                             (listing ? counts.listings : counts.lookups).incrementAndGet();
+                         } else if (status == 503) {
+                             counts.rejected.incrementAndGet();
+                         } else {
+                             counts.failed.incrementAndGet();
+                         }
+                     })
+                     .onErrorResume(e -> {
+                         (e instanceof TimeoutException ? counts.late : counts.failed).incrementAndGet();
+                         return Mono.empty();
+                     });
+    }
+
+    private static final class Counts {
+        private final AtomicLong lookups = new AtomicLong();
+        private final AtomicLong listings = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong late = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+    }
+
+    /**
+     * Holds every connection {@code delayMillis} longer than the work done on it, as a loaded database would.
+     */
+    private static final class SlowDatabase implements BeanPostProcessor {
+
+        private final long delayMillis;
+
+        private SlowDatabase(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || bean instanceof DelegatingDataSource) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.benchmark;
+
+import com.example.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sweeps the Hikari pool size under the {@code production} profile: 64 client threads over real HTTP run a mix of
+ * 80% single reads, 15% keyset pages and 5% creates against {@code /api/student}. The knee is the smallest pool
+ * past which throughput stops rising; each iteration prints the connection acquire time percentiles and how many
+ * requests were rejected with 503 because no connection came free within the connection timeout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class StudentPoolSizeBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"2", "4", "8", "16", "32", "64"})
+    private int poolSize;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkHttp http;
+    private ObjectMapper objectMapper;
+    private Timer acquire;
+    private long firstId;
+    private final AtomicLong nextRow = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "spring.profiles.active=production",
+                "spring.cache.type=none",
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.datasource.hikari.minimum-idle=" + poolSize);
+        firstId = BenchmarkApplication.seed(context.getBean(StudentService.class), rows);
+        nextRow.set(rows);
+        http = new BenchmarkHttp(context);
+        objectMapper = context.getBean(ObjectMapper.class);
+        acquire = context.getBean(MeterRegistry.class).get("hikaricp.connections.acquire").tag("pool", "student").timer();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPoolMetrics() {
+        StringBuilder percentiles = new StringBuilder();
+        for (ValueAtPercentile percentile : acquire.takeSnapshot().percentileValues()) {
+            percentiles.append(String.format(" p%.0f=%.2fms", percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        System.out.printf("%nacquire%s max=%.2fms rejected=%d%n", percentiles, acquire.max(TimeUnit.MILLISECONDS), rejected.getAndSet(0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int mixed() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int dice = random.nextInt(100);
+        int status;
+        if (dice < 80) {
+            status = http.get("/api/student/" + (firstId + random.nextLong(rows)));
+        } else if (dice < 95) {
+            status = http.get("/api/student?limit=100&after=" + (firstId + random.nextLong(rows)));
+        } else {
+            status = http.post("/api/student", "application/json",
+                    objectMapper.writeValueAsString(BenchmarkApplication.student(nextRow.getAndIncrement())));
+        }
+        if (status == 503) {
+            rejected.incrementAndGet();
+        }
+        return status;
+    }
+}
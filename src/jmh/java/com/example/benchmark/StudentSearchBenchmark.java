@@ -0,0 +1,46 @@
+package com.example.benchmark;
+
+import com.example.entity.Student;
+import com.example.search.StudentSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete queries against the in-memory search index, filled directly rather than from the database. Names come
+ * from small pools so prefixes and typos hit many students, as real first and last names do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"virat", "rohit", "virender", "sachin", "rahul", "shubman", "jasprit",
+            "ravindra", "hardik", "suryakumar", "ishan", "rishabh"};
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    @Param({"sachin", "sac", "schin", "rahul last4"})
+    private String query;
+
+    private StudentSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new StudentSearchIndex(null);
+        for (int i = 0; i < rows; i++) {
+            Student student = BenchmarkApplication.student(i);
+            student.setId(i + 1);
+            student.setFirstName(FIRST_NAMES[i % FIRST_NAMES.length]);
+            student.setLastName("last" + i % 1000);
+            index.put(student);
+        }
+    }
+
+    @Benchmark
+    public List<Student> search() {
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.benchmark;
+
+import com.example.entity.Student;
+import com.example.repository.StudentRepository;
+import com.example.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service and repository hot paths against embedded H2, on a small and a 1M row table. {@code indexes=false} is the
+ * baseline before the finder indexes: the name index and the unique email constraint are dropped once the table is
+ * seeded, so the finders scan the table. {@code -p cache=none} bypasses the lookup caches. The full matrix seeds 1M
+ * rows per trial; narrow it with e.g. {@code -p rows=1000000 -p cache=none}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentServiceBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean indexes;
+
+    @Param({"caffeine", "none"})
+    private String cache;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentRepository studentRepository;
+    private long firstId;
+    private final AtomicLong nextRow = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, "spring.cache.type=" + cache);
+        studentService = context.getBean(StudentService.class);
+        studentRepository = context.getBean(StudentRepository.class);
+        firstId = BenchmarkApplication.seed(studentService, rows);
+        if (!indexes) {
+            // after seeding: without the email index every bulk insert chunk scans the table for duplicates
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+            jdbcTemplate.execute("drop index " + Student.NAME_INDEX);
+            jdbcTemplate.execute("alter table students drop constraint " + Student.EMAIL_UNIQUE_CONSTRAINT);
+        }
+        nextRow.set(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Student> getStudentById() {
+        return studentService.getStudentById(firstId + randomRow());
+    }
+
+    @Benchmark
+    public Optional<Student> getStudentByEmail() {
+        return studentService.getStudentByEmail("student" + randomRow() + "@example.com");
+    }
+
+    @Benchmark
+    public List<Student> getStudentsAfter() {
+        return studentService.getStudentsAfter(firstId + randomRow(), 100);
+    }
+
+    @Benchmark
+    public Student findByFirstNameAndLastName() {
+        long row = randomRow();
+        return studentRepository.findByJpqlIndexedParams("first" + row, "last" + row);
+    }
+
+    @Benchmark
+    public Student findByFirstNameAndEmail() {
+        long row = randomRow();
+        return studentRepository.findByJpqlNativeQueryIndexedParams("first" + row, "student" + row + "@example.com");
+    }
+
+    @Benchmark
+    public Student findByLastNameAndEmail() {
+        long row = randomRow();
+        return studentRepository.findByJpqlNativeQueryNamedParams("last" + row, "student" + row + "@example.com");
+    }
+
+    @Benchmark
+    public Student saveStudent() {
+        return studentService.saveStudent(BenchmarkApplication.student(nextRow.getAndIncrement()));
+    }
+
+    private long randomRow() {
+        return ThreadLocalRandom.current().nextLong(rows);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Time from launching a fresh JVM with the application to the first successful {@code GET /api/student/{id}}, i.e.
+ * what an autoscaler waits for: a student is created as soon as the server accepts requests and then read back. Runs
+ * the class path laid out by the {@code cds} build profile, with and without its archive, so build with
+ * {@code mvn -Pbenchmark,cds -DskipTests verify -Djmh.args="StudentStartupBenchmark"}. Application output goes to
+ * {@code target/startup-benchmark.log}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StudentStartupBenchmark {
+
+    private static final Path CDS_DIRECTORY = Paths.get("target", "cds");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Param({"default", "faststart"})
+    private String profile;
+
+    @Param({"false", "true"})
+    private boolean cds;
+
+    private final List<String> command = new ArrayList<>();
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path archive = CDS_DIRECTORY.resolve("app.jsa");
+        Path appJar;
+        try (Stream<Path> files = Files.list(CDS_DIRECTORY)) {
+            appJar = files.filter(file -> file.getFileName().toString().endsWith("-cds.jar")).findFirst().orElse(null);
+        } catch (IOException e) {
+            appJar = null;
+        }
+        if (appJar == null || !Files.isRegularFile(archive)) {
+            throw new IllegalStateException("No CDS layout in " + CDS_DIRECTORY + ", build with the cds profile");
+        }
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (cds) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.add("-classpath");
+        command.add(appJar + File.pathSeparator + CDS_DIRECTORY.resolve("lib") + File.separator + "*");
+        command.add("com.example.SpringbootTestingApplication");
+        command.add("--spring.profiles.active=" + profile);
+    }
+
+    @Benchmark
+    public int firstGet() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> launch = new ArrayList<>(command);
+        launch.add("--server.port=" + port);
+        process = new ProcessBuilder(launch).redirectErrorStream(true)
+                                            .redirectOutput(ProcessBuilder.Redirect.appendTo(new File("target/startup-benchmark.log")))
+                                            .start();
+        BenchmarkHttp http = new BenchmarkHttp(port);
+        String created = null;
+        while (created == null) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see target/startup-benchmark.log");
+            }
+            try {
+                created = http.postForBody("/api/student", "application/json", "{\"firstName\":\"first\",\"lastName\":\"last\"}");
+            } catch (IOException e) {
+                // not listening yet
+            }
+            if (created == null) {
+                Thread.sleep(10);
+            }
+        }
+        Matcher id = ID.matcher(created);
+        if (!id.find()) {
+            throw new IllegalStateException("No id in " + created);
+        }
+        int status = http.get("/api/student/" + id.group(1));
+        if (status != 200) {
+            throw new IllegalStateException("First GET answered with " + status);
+        }
+        return status;
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        process.destroy();
+        process.waitFor();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.benchmark;
+
+import com.example.writebehind.StudentWriteQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Burst of single student creates over real HTTP from 32 client threads, written inline ({@code writeBehind=false})
+ * or acknowledged with 202 and applied in batches by the write-behind queue ({@code writeBehind=true}). The queue is
+ * sized so a measurement iteration fits into it; each trial prints how many creates were rejected with 503 and how
+ * long the queue took to drain once the clients stopped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class StudentWriteBehindBenchmark {
+
+    @Param({"false", "true"})
+    private boolean writeBehind;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkHttp http;
+    private ObjectMapper objectMapper;
+    private final AtomicLong nextRow = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "student.write-behind.enabled=" + writeBehind,
+                "student.write-behind.capacity=1000000",
+                "spring.cache.type=none");
+        http = new BenchmarkHttp(context);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void awaitDrained() throws InterruptedException {
+        if (!writeBehind) {
+            return;
+        }
+        StudentWriteQueue queue = context.getBean(StudentWriteQueue.class);
+        long start = System.nanoTime();
+        while (queue.size() > 0) {
+            Thread.sleep(10);
+        }
+        System.out.printf("%nqueue drained in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("rejected=%d%n", rejected.get());
+        context.close();
+    }
+
+    @Benchmark
+    public int createStudent() throws IOException {
+        int status = http.post("/api/student", "application/json",
+                objectMapper.writeValueAsString(BenchmarkApplication.student(nextRow.getAndIncrement())));
+        if (status == 503) {
+            rejected.incrementAndGet();
+        }
+        return status;
+    }
+}
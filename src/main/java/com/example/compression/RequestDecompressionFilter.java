@@ -0,0 +1,183 @@
+package com.example.compression;
+
+import com.example.exception.RequestBodyTooLargeException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Inflates {@code gzip} and {@code deflate} request bodies, which the servlet container only does for responses.
+ * The body is inflated while it is read, and reading fails with {@link RequestBodyTooLargeException} (answered with
+ * 413) once more than {@code maxInflatedSize} bytes came out of it. Any other content coding is answered with 415.
+ * <p>
+ * Non-blocking reads register their {@link ReadListener} with the container's stream, so they are notified when
+ * compressed bytes arrive; a single read may still block until enough of them arrived to inflate anything.
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private final long maxInflatedSize;
+
+    public RequestDecompressionFilter(long maxInflatedSize) {
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.trim().isEmpty() || "identity".equalsIgnoreCase(encoding.trim())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String coding = encoding.trim().toLowerCase(Locale.ROOT);
+        if (!"gzip".equals(coding) && !"x-gzip".equals(coding) && !"deflate".equals(coding)) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding " + encoding);
+            return;
+        }
+        filterChain.doFilter(new InflatedRequest(request, "deflate".equals(coding)), response);
+    }
+
+    private final class InflatedRequest extends HttpServletRequestWrapper {
+
+        private final boolean deflate;
+        private ServletInputStream inputStream;
+
+        InflatedRequest(HttpServletRequest request, boolean deflate) {
+            super(request);
+            this.deflate = deflate;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream body = getRequest().getInputStream();
+                inputStream = new InflatedInputStream(body, deflate ? new InflaterInputStream(body) : new GZIPInputStream(body));
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHiddenHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHiddenHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames())
+                                                      .stream()
+                                                      .filter(name -> !isHiddenHeader(name))
+                                                      .collect(Collectors.toList()));
+        }
+
+        // the body handed on is neither encoded nor of the length the client sent
+        private boolean isHiddenHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private final class InflatedInputStream extends ServletInputStream {
+
+        private final ServletInputStream body;
+        private final InputStream inflated;
+        private long count;
+        private boolean finished;
+        private boolean nonBlocking;
+
+        InflatedInputStream(ServletInputStream body, InputStream inflated) {
+            this.body = body;
+            this.inflated = inflated;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = inflated.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = inflated.read(b, off, len);
+            if (n < 0) {
+                finished = true;
+            } else {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            if (count > maxInflatedSize) {
+                throw new RequestBodyTooLargeException("Inflated request body exceeds " + maxInflatedSize + " bytes");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflated.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            // containers only answer for their stream once it is in non-blocking mode
+            return finished || !nonBlocking || body.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            body.setReadListener(readListener);
+            nonBlocking = true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.config;
+
+import com.example.controller.CompletedFutureReturnValueHandler;
+import com.example.routing.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Executor the student handlers run their service calls on.
+ * <p>
+ * By default ({@code student.async.enabled=false}) calls run inline on the servlet thread and the handlers' futures
+ * are complete when returned, so they are rendered like plain return values, see
+ * {@link CompletedFutureReturnValueHandler}; only streamed responses are written asynchronously, on a small bounded
+ * pool of their own. When enabled calls run on a bounded pool, which also serves streamed responses, so container
+ * threads are released while JDBC calls block. A full pool and queue rejects new work, which is answered with 503.
+ * The {@code async} profile enables this mode and sizes the connection pool to the executor.
+ * <p>
+ * Streamed responses (listings, exports, the change feed) take as long as the table and the client make them, so
+ * they are not bound by the async request timeout ({@code spring.mvc.async.request-timeout}, 30s in Tomcat) but by
+ * {@code student.async.streaming-timeout}, unbounded unless set. They are the only handlers processed as a
+ * {@link Callable}; the futures of the other handlers keep the default timeout.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    public static final String STUDENT_REQUEST_EXECUTOR = "studentRequestExecutor";
+    public static final String STUDENT_STREAMING_EXECUTOR = "studentStreamingExecutor";
+
+    @Value("${student.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.async.core-pool-size:16}")
+    private int corePoolSize;
+
+    @Value("${student.async.max-pool-size:32}")
+    private int maxPoolSize;
+
+    @Value("${student.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${student.async.streaming-pool-size:8}")
+    private int streamingPoolSize;
+
+    @Value("${student.async.streaming-queue-capacity:100}")
+    private int streamingQueueCapacity;
+
+    // zero or negative: no timeout
+    @Value("${student.async.streaming-timeout:0}")
+    private Duration streamingTimeout;
+
+    @Bean(name = STUDENT_REQUEST_EXECUTOR)
+    public TaskExecutor studentRequestExecutor() {
+        if (!enabled) {
+            return new SyncTaskExecutor();
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("student-request-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        // tasks read from the primary when the request handing them over must, see ReplicaRoutingConfig
+        executor.setTaskDecorator(ReadYourWrites::decorate);
+        return executor;
+    }
+
+    // the executor beans above switch off Spring Boot's applicationTaskExecutor, without this streamed responses would
+    // get a new thread each from Spring MVC's fallback executor
+    @Bean(name = STUDENT_STREAMING_EXECUTOR)
+    @ConditionalOnProperty(name = "student.async.enabled", havingValue = "false", matchIfMissing = true)
+    public AsyncTaskExecutor studentStreamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamingPoolSize);
+        executor.setMaxPoolSize(streamingPoolSize);
+        executor.setQueueCapacity(streamingQueueCapacity);
+        executor.setThreadNamePrefix("student-stream-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        // a streamed body reads from the same database as the ETag checked on the request thread
+        executor.setTaskDecorator(ReadYourWrites::decorate);
+        return executor;
+    }
+
+    @Bean
+    public static BeanPostProcessor completedFutureReturnValueHandlerInstaller() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter) {
+                    CompletedFutureReturnValueHandler.install((RequestMappingHandlerAdapter) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(enabled ? (AsyncTaskExecutor) studentRequestExecutor() : studentStreamingExecutor());
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            // runs before async processing starts, which is when the timeout is handed to the container
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest) {
+                    ((AsyncWebRequest) request).setTimeout(streamingTimeout.isNegative() || streamingTimeout.isZero()
+                            ? -1L : streamingTimeout.toMillis());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Turns on the Caffeine backed caches configured through {@code spring.cache.*} in application.properties.
+ * <p>
+ * The cache advice wraps the transactional one, so a hit returns without opening a transaction or borrowing a
+ * connection, and puts happen only after the transaction has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String STUDENTS_BY_ID = "students";
+    public static final String STUDENTS_BY_EMAIL = "studentsByEmail";
+
+}
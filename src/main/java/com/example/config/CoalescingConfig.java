@@ -0,0 +1,65 @@
+package com.example.config;
+
+import com.example.lookup.StudentLookupCoalescer;
+import com.example.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+/**
+ * Lookup coalescing ({@code student.coalescing.enabled=true}, or the {@code coalescing} profile):
+ * {@code GET /api/student/{id}} lookups missing from the by-id cache and arriving within
+ * {@code student.coalescing.window} of each other are read with one query by {@link StudentLookupCoalescer}.
+ * <p>
+ * Batches are read on a bounded pool of their own ({@code student.coalescing.pool-size}, with
+ * {@code student.coalescing.queue-capacity} batches waiting), whether or not the student handlers run inline, so
+ * batches whose windows close together are read in parallel rather than one after the other on the window timer.
+ * Each thread holds at most one connection; keep the pool well within the connection pool. A full queue fails the
+ * batch's lookups, which are answered with 503.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.coalescing.enabled", havingValue = "true")
+public class CoalescingConfig {
+
+    public static final String STUDENT_LOOKUP_EXECUTOR = "studentLookupExecutor";
+
+    @Value("${student.coalescing.window:2ms}")
+    private Duration window;
+
+    @Value("${student.coalescing.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${student.coalescing.pool-size:4}")
+    private int poolSize;
+
+    @Value("${student.coalescing.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean(name = STUDENT_LOOKUP_EXECUTOR)
+    public ThreadPoolTaskExecutor studentLookupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("student-lookup-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    public StudentLookupCoalescer studentLookupCoalescer(StudentService studentService, CacheManager cacheManager,
+                                                         @Qualifier(STUDENT_LOOKUP_EXECUTOR) ThreadPoolTaskExecutor studentLookupExecutor,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new StudentLookupCoalescer(studentService, cacheManager.getCache(CacheConfig.STUDENTS_BY_ID), studentLookupExecutor,
+                window, maxBatchSize, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.config;
+
+import com.example.compression.RequestDecompressionFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Compressed request bodies for the student API. Response compression is the container's, configured through
+ * {@code server.compression.*}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompressionConfig {
+
+    @Value("${student.request-decompression.max-size:16MB}")
+    private DataSize maxInflatedSize;
+
+    @Bean
+    public FilterRegistrationBean<RequestDecompressionFilter> studentRequestDecompressionFilter() {
+        FilterRegistrationBean<RequestDecompressionFilter> registration =
+                new FilterRegistrationBean<>(new RequestDecompressionFilter(maxInflatedSize.toBytes()));
+        registration.addUrlPatterns("/api/student", "/api/student/*");
+        return registration;
+    }
+}
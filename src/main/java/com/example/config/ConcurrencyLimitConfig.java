@@ -0,0 +1,72 @@
+package com.example.config;
+
+import com.example.limit.AdaptiveConcurrencyLimit;
+import com.example.limit.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Load shedding ({@code student.concurrency-limit.enabled=true}, or the {@code load-shedding} profile): student API
+ * requests beyond the adaptive read or write limit are answered with 503 by {@link ConcurrencyLimitFilter}. The
+ * latency thresholds are what the limits steer towards; set them a little above the normal latency of a single
+ * lookup and a single write.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "student.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Value("${student.concurrency-limit.read.initial-limit:20}")
+    private int readInitialLimit;
+
+    @Value("${student.concurrency-limit.read.max-limit:200}")
+    private int readMaxLimit;
+
+    @Value("${student.concurrency-limit.read.latency-threshold:100ms}")
+    private Duration readLatencyThreshold;
+
+    @Value("${student.concurrency-limit.write.initial-limit:10}")
+    private int writeInitialLimit;
+
+    @Value("${student.concurrency-limit.write.max-limit:50}")
+    private int writeMaxLimit;
+
+    @Value("${student.concurrency-limit.write.latency-threshold:250ms}")
+    private Duration writeLatencyThreshold;
+
+    @Value("${student.concurrency-limit.min-limit:2}")
+    private int minLimit;
+
+    @Value("${student.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${student.concurrency-limit.bulk-share:0.5}")
+    private double bulkShare;
+
+    @Value("${student.concurrency-limit.retry-after:1s}")
+    private Duration retryAfter;
+
+    // ahead of the access log and request decompression, so shed requests cost next to nothing; after the metrics
+    // filter, so they still show up in http.server.requests
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> studentConcurrencyLimitFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimit(readInitialLimit, minLimit, readMaxLimit, readLatencyThreshold, backoffRatio),
+                new AdaptiveConcurrencyLimit(writeInitialLimit, minLimit, writeMaxLimit, writeLatencyThreshold, backoffRatio),
+                bulkShare, Math.max(1, retryAfter.getSeconds()), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/student", "/api/student/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
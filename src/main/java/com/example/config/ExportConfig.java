@@ -0,0 +1,44 @@
+package com.example.config;
+
+import com.example.export.StudentExporter;
+import com.example.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Full table exports served by {@code GET /api/student/export}, see {@link StudentExporter}.
+ */
+@Configuration
+public class ExportConfig {
+
+    // rows per driver round trip; the driver buffers one fetch at a time
+    @Value("${student.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${student.export.snapshot-directory:${java.io.tmpdir}/student-export}")
+    private String snapshotDirectory;
+
+    // bounds how long a snapshot can miss writes not made through this instance
+    @Value("${student.export.snapshot-max-age:1m}")
+    private Duration snapshotMaxAge;
+
+    @Bean
+    public StudentExporter studentExporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                           StudentService studentService, ObjectMapper objectMapper) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return new StudentExporter(jdbcTemplate, readOnlyTransaction, studentService, objectMapper.getFactory(),
+                Paths.get(snapshotDirectory), snapshotMaxAge);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.config;
+
+import com.example.journal.StudentChangeJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Change journal ({@code student.journal.enabled=true}, or the {@code journal} profile): every committed student write
+ * is appended to {@link StudentChangeJournal} and served from {@code GET /api/student/changes}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Value("${student.journal.directory:student-journal}")
+    private String directory;
+
+    @Value("${student.journal.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${student.journal.retained-segments:16}")
+    private int retainedSegments;
+
+    // flush every append to disk rather than leaving it to the OS, survives a crash of the machine but costs an fsync
+    @Value("${student.journal.force:false}")
+    private boolean force;
+
+    @Bean
+    public StudentChangeJournal studentChangeJournal() throws IOException {
+        return new StudentChangeJournal(Paths.get(directory), Math.toIntExact(segmentSize.toBytes()), retainedSegments, force);
+    }
+}
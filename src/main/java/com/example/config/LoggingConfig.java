@@ -0,0 +1,31 @@
+package com.example.config;
+
+import com.example.logging.SampledAccessLogFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request logging for the student API. Handlers no longer log per call; the sampled access log replaces that, and
+ * all appenders write through the async appender configured in {@code logback-spring.xml}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LoggingConfig {
+
+    @Value("${student.access-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${student.access-log.slow-threshold-ms:500}")
+    private long slowThresholdMillis;
+
+    @Bean
+    public FilterRegistrationBean<SampledAccessLogFilter> studentAccessLogFilter() {
+        FilterRegistrationBean<SampledAccessLogFilter> registration =
+                new FilterRegistrationBean<>(new SampledAccessLogFilter(sampleRate, slowThresholdMillis));
+        registration.addUrlPatterns("/api/student", "/api/student/*");
+        return registration;
+    }
+}
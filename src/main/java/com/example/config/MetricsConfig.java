@@ -0,0 +1,28 @@
+package com.example.config;
+
+import com.example.metrics.InFlightRequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the in-flight request gauge for the student API. Throughput and latency histograms come from the
+ * actuator's own {@code http.server.requests} and {@code spring.data.repository.invocations} timers.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new InFlightRequestInterceptor(meters))
+                                                    .addPathPatterns("/api/student/**", "/api/student"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+
+/**
+ * R2DBC access for the reactive student API, only set up with {@code student.reactive.enabled=true} (the
+ * {@code reactive} profile), so servlet deployments neither open R2DBC connections nor need an R2DBC URL.
+ * <p>
+ * Connections come from a pool of {@code student.reactive.pool-size} connections, by default as many as the Hikari
+ * pool of the DataSource, so both stacks are compared with the same number of connections. The pool is a bean so it
+ * is disposed on shutdown, but typed as {@link Disposable}: Spring Boot backs off from the JDBC DataSource as soon as
+ * a {@link ConnectionFactory} bean exists. With {@code student.reactive.url} unset it opens the same embedded H2
+ * database as the DataSource, so the blocking and reactive stacks can be compared on identical data; when set, it is
+ * the URL of an unpooled connection factory, e.g. {@code r2dbc:postgresql://host/db}.
+ * <p>
+ * Reactive transactions go through {@link #REACTIVE_STUDENT_TRANSACTION} rather than {@code @Transactional}: a
+ * second transaction manager bean would leave the JPA services' {@code @Transactional} without a unique manager.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.reactive.enabled", havingValue = "true")
+public class ReactiveConfig {
+
+    public static final String REACTIVE_STUDENT_CONNECTION_POOL = "reactiveStudentConnectionPool";
+    public static final String REACTIVE_STUDENT_TRANSACTION = "reactiveStudentTransaction";
+
+    private static final String H2_MEM_PREFIX = "jdbc:h2:mem:";
+
+    @Bean(name = REACTIVE_STUDENT_CONNECTION_POOL, destroyMethod = "dispose")
+    public Disposable reactiveStudentConnectionPool(@Value("${student.reactive.url:}") String url,
+                                                    @Value("${student.reactive.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+                                                    DataSourceProperties dataSourceProperties) {
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory(url, dataSourceProperties))
+                                                             .name("student-reactive")
+                                                             .initialSize(0)
+                                                             .maxSize(poolSize)
+                                                             .build());
+    }
+
+    @Bean
+    public R2dbcEntityTemplate reactiveStudentTemplate(@Qualifier(REACTIVE_STUDENT_CONNECTION_POOL) Disposable connectionPool) {
+        return new R2dbcEntityTemplate((ConnectionFactory) connectionPool);
+    }
+
+    @Bean(name = REACTIVE_STUDENT_TRANSACTION)
+    public TransactionalOperator reactiveStudentTransaction(@Qualifier(REACTIVE_STUDENT_CONNECTION_POOL) Disposable connectionPool) {
+        return TransactionalOperator.create(new R2dbcTransactionManager((ConnectionFactory) connectionPool));
+    }
+
+    private static ConnectionFactory connectionFactory(String url, DataSourceProperties dataSourceProperties) {
+        if (StringUtils.hasText(url)) {
+            return ConnectionFactories.get(url);
+        }
+        String jdbcUrl = dataSourceProperties.determineUrl();
+        if (jdbcUrl == null || !jdbcUrl.startsWith(H2_MEM_PREFIX)) {
+            throw new IllegalStateException("student.reactive.url must be set when the DataSource is not in-memory H2: " + jdbcUrl);
+        }
+        String database = jdbcUrl.substring(H2_MEM_PREFIX.length()).split(";", 2)[0];
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse("r2dbc:h2:mem:///" + database
+                + "?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE").mutate();
+        if (StringUtils.hasText(dataSourceProperties.determineUsername())) {
+            options.option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername());
+        }
+        if (StringUtils.hasText(dataSourceProperties.determinePassword())) {
+            options.option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword());
+        }
+        return ConnectionFactories.get(options.build());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.config;
+
+import com.example.routing.ReadYourWritesFilter;
+import com.example.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas ({@code student.replicas.enabled=true}, or the {@code replicas} profile): read-only transactions,
+ * which are all of {@code StudentService}'s reads, run on one of the pools of {@code student.replicas.urls} in turn,
+ * writes on the primary pool configured by {@code spring.datasource.*} as before. A client that wrote keeps reading
+ * from the primary for {@code student.replicas.read-your-writes-window}, see {@link ReadYourWritesFilter}; set it
+ * above the replication lag.
+ * <p>
+ * Replica pools are named after the primary pool with a {@code -replica-<n>} suffix and publish the same
+ * {@code hikaricp.*} meters.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Value("${student.replicas.urls}")
+    private List<String> urls;
+
+    // the primary's credentials unless set
+    @Value("${student.replicas.username:}")
+    private String username;
+
+    @Value("${student.replicas.password:}")
+    private String password;
+
+    @Value("${student.replicas.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${student.replicas.read-your-writes-window:5s}")
+    private Duration readYourWritesWindow;
+
+    // the pool Spring Boot would have configured from spring.datasource.*, which it no longer does once a DataSource
+    // is defined here
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(primaryDataSource.getPoolName() + "-replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+            replica.setPassword(StringUtils.hasText(username) ? password : properties.determinePassword());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Spring Boot only meters the pools that are beans
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> {
+            for (DataSource replica : replicaRoutingDataSource.getReplicas()) {
+                ((HikariDataSource) replica).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> studentReadYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesWindow));
+        registration.addUrlPatterns("/api/student", "/api/student/*");
+        return registration;
+    }
+}
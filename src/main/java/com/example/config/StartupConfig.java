@@ -0,0 +1,23 @@
+package com.example.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Training run of the {@code cds} build profile: with {@code student.startup.exit-on-ready=true} the application
+ * exits as soon as it is ready to serve, and the JVM writes every class it loaded on the way to the class data sharing
+ * archive.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.startup.exit-on-ready", havingValue = "true")
+public class StartupConfig {
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> exitOnReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
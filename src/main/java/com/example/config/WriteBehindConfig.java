@@ -0,0 +1,45 @@
+package com.example.config;
+
+import com.example.service.StudentService;
+import com.example.writebehind.StudentWriteQueue;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Write-behind mode ({@code student.write-behind.enabled=true}, or the {@code write-behind} profile): single student
+ * creates and unconditional updates are answered with 202 and applied later by {@link StudentWriteQueue}. The queue
+ * depth is published as {@code student.write-behind.queue.size}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    @Value("${student.write-behind.capacity:10000}")
+    private int capacity;
+
+    // a multiple of hibernate.jdbc.batch_size, the creates of a batch are inserted in chunks of that size
+    @Value("${student.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${student.write-behind.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    @Value("${student.write-behind.status-retention:10m}")
+    private Duration statusRetention;
+
+    @Bean
+    public StudentWriteQueue studentWriteQueue(StudentService studentService, ObjectProvider<MeterRegistry> meterRegistry) {
+        StudentWriteQueue queue = new StudentWriteQueue(studentService, capacity, batchSize, shutdownTimeout, statusRetention);
+        meterRegistry.ifAvailable(meters -> Gauge.builder("student.write-behind.queue.size", queue, StudentWriteQueue::size)
+                                                 .description("Student writes accepted but not yet applied")
+                                                 .register(meters));
+        return queue;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.controller;
+
+import com.example.exception.RequestBodyTooLargeException;
+import com.example.exception.ResourceAlreadyExistsException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ResourceVersionMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps service exceptions to statuses. Requests shed with 503 under overload are counted as
+ * {@code student.requests.rejected} per reason and only logged at debug, since they come in bursts.
+ */
+@RestControllerAdvice
+@Slf4j
+public class ApiExceptionHandler {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Counter executorRejected;
+    private final Counter connectionRejected;
+
+    @Autowired
+    public ApiExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    ApiExceptionHandler(MeterRegistry meterRegistry) {
+        this.executorRejected = rejectedCounter(meterRegistry, "executor");
+        this.connectionRejected = rejectedCounter(meterRegistry, "connection");
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Void> handleNotFound(ResourceNotFoundException e) {
+        return ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(ResourceAlreadyExistsException.class)
+    public ResponseEntity<Void> handleAlreadyExists(ResourceAlreadyExistsException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(ResourceVersionMismatchException.class)
+    public ResponseEntity<Void> handleVersionMismatch(ResourceVersionMismatchException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    // also matched as the cause of the HttpMessageNotReadableException that wraps it when a @RequestBody is read
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    public ResponseEntity<Void> handleBodyTooLarge(RequestBodyTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> handleTaskRejected(TaskRejectedException e) {
+        executorRejected.increment();
+        log.debug("Rejecting request, student executor saturated: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                             .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                             .build();
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Void> handleNoConnection(CannotCreateTransactionException e) {
+        connectionRejected.increment();
+        log.debug("Rejecting request, no database connection available: {}", e.getMostSpecificCause().getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                             .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                             .build();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("student.requests.rejected")
+                      .description("Requests answered with 503 because an executor or the connection pool was exhausted")
+                      .tag("reason", reason)
+                      .register(meterRegistry);
+    }
+}
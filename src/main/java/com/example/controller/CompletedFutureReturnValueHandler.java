@@ -0,0 +1,103 @@
+package com.example.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Renders a {@link CompletableFuture} returned already complete, as it always is when the student handlers run their
+ * service calls inline, like the plain value it holds: on the request thread, without the async dispatch Spring MVC
+ * starts for every future. A future that failed throws its cause, so it reaches the exception handlers as if the
+ * handler had thrown it. Futures still pending are left to Spring MVC's async handling.
+ */
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandler delegate;
+
+    CompletedFutureReturnValueHandler(HandlerMethodReturnValueHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Puts the handler ahead of the adapter's own, which handle the pending futures and the completed values.
+     */
+    public static void install(RequestMappingHandlerAdapter adapter) {
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(adapter.getReturnValueHandlers());
+        HandlerMethodReturnValueHandler delegate = new HandlerMethodReturnValueHandlerComposite().addHandlers(handlers);
+        handlers.add(0, new CompletedFutureReturnValueHandler(delegate));
+        adapter.setReturnValueHandlers(handlers);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+        if (future == null || !future.isDone()) {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+        Object result;
+        try {
+            result = future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        delegate.handleReturnValue(result, new ResultParameter(returnType), mavContainer, webRequest);
+    }
+
+    /**
+     * The handler's return type with the future unwrapped, e.g. {@code ResponseEntity<Student>} for
+     * {@code CompletableFuture<ResponseEntity<Student>>}; annotations are still those of the handler method.
+     */
+    private static final class ResultParameter extends MethodParameter {
+
+        private final ResolvableType resultType;
+
+        private ResultParameter(MethodParameter futureType) {
+            super(futureType);
+            this.resultType = ResolvableType.forMethodParameter(futureType).getGeneric();
+        }
+
+        private ResultParameter(ResultParameter original) {
+            super(original);
+            this.resultType = original.resultType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return resultType.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return resultType.getType();
+        }
+
+        @Override
+        public ResultParameter clone() {
+            return new ResultParameter(this);
+        }
+    }
+}
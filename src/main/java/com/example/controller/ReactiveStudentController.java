@@ -0,0 +1,126 @@
+package com.example.controller;
+
+import com.example.entity.Student;
+import com.example.service.ReactiveStudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * WebFlux counterpart of {@link StudentController}, active when the application runs as a reactive web application
+ * (the {@code reactive} profile). Listings are written as rows arrive from R2DBC, with backpressure from the client.
+ */
+@RestController
+@RequestMapping(path = "/api/student")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "student.reactive.enabled", havingValue = "true")
+public class ReactiveStudentController {
+
+    // formats a single student is written and tagged in, JSON first so it wins for */*; WebFlux has no CBOR encoder
+    private static final List<MediaType> STUDENT_TYPES = Arrays.asList(MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType(StudentController.APPLICATION_SMILE_VALUE));
+
+    private final ReactiveStudentService reactiveStudentService;
+
+    @Autowired
+    public ReactiveStudentController(ReactiveStudentService reactiveStudentService) {
+        this.reactiveStudentService = reactiveStudentService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Student> createStudent(@RequestBody Student student) {
+        return reactiveStudentService.saveStudent(student);
+    }
+
+    /**
+     * Creates at most {@link StudentController#MAX_BULK_SIZE} students, sent as a JSON array or as NDJSON, in one
+     * transaction; more are answered with 413. The body is decoded element by element and collected, so decoding stops
+     * at the first student beyond the limit.
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<List<Student>> createStudents(@RequestBody Flux<Student> students) {
+        return students.take(StudentController.MAX_BULK_SIZE + 1L)
+                       .collectList()
+                       .flatMap(list -> list.size() > StudentController.MAX_BULK_SIZE
+                               ? Mono.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                       "At most " + StudentController.MAX_BULK_SIZE + " students per request"))
+                               : reactiveStudentService.saveStudents(list).collectList());
+    }
+
+    /**
+     * Tagged with the student's version and the negotiated format; a matching {@code If-None-Match} is answered with
+     * 304 without a body.
+     */
+    @GetMapping(path = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, StudentController.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<Student>> getStudent(@PathVariable("id") long id, ServerWebExchange exchange) {
+        MediaType mediaType = StudentController.negotiateType(exchange.getRequest().getHeaders().getAccept(), STUDENT_TYPES);
+        return reactiveStudentService.getStudentById(id)
+                                     .map(student -> {
+                                         String eTag = StudentETags.of(student, mediaType);
+                                         if (exchange.checkNotModified(eTag)) {
+                                             return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<Student>build();
+                                         }
+                                         return tagged(student, mediaType);
+                                     })
+                                     .defaultIfEmpty(ResponseEntity.notFound()
+                                                                   .build());
+    }
+
+    /**
+     * Replaces the student's names and email. With {@code If-Match} set to the student's ETag the update only
+     * happens if nobody changed the student since, otherwise it is answered with 412.
+     */
+    @PutMapping(path = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, StudentController.APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<Student>> updateStudent(@PathVariable("id") long id, @RequestBody Student student,
+                                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @RequestHeader HttpHeaders headers) {
+        student.setId(id);
+        MediaType mediaType = StudentController.negotiateType(headers.getAccept(), STUDENT_TYPES);
+        Mono<Student> updated;
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            updated = reactiveStudentService.updateStudent(student);
+        } else {
+            long expectedVersion;
+            try {
+                expectedVersion = StudentETags.parseVersion(ifMatch);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+            }
+            updated = reactiveStudentService.updateStudent(student, expectedVersion);
+        }
+        return updated.map(updatedStudent -> tagged(updatedStudent, mediaType));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Student> getAllStudents(@RequestParam(name = "after", defaultValue = "0") long after) {
+        return reactiveStudentService.streamStudentsAfter(after);
+    }
+
+    @GetMapping(params = "limit")
+    public Flux<Student> getStudentsPage(@RequestParam(name = "after", defaultValue = "0") long after,
+                                         @RequestParam(name = "limit") int limit) {
+        if (limit < 1 || limit > StudentController.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + StudentController.MAX_PAGE_SIZE);
+        }
+        return reactiveStudentService.getStudentsAfter(after, limit);
+    }
+
+    // written in the format the tag names, not in whatever the codecs would pick
+    private static ResponseEntity<Student> tagged(Student student, MediaType mediaType) {
+        return ResponseEntity.ok().contentType(mediaType).eTag(StudentETags.of(student, mediaType)).body(student);
+    }
+}
@@ -1,46 +1,504 @@
 package com.example.controller;
 
+import com.example.config.AsyncConfig;
 import com.example.entity.Student;
+import com.example.export.StudentExportFormat;
+import com.example.export.StudentExporter;
+import com.example.journal.StudentChange;
+import com.example.journal.StudentChangeJournal;
+import com.example.lookup.StudentLookupCoalescer;
+import com.example.repository.StudentField;
+import com.example.search.StudentSearchIndex;
 import com.example.service.StudentService;
+import com.example.writebehind.StudentWrite;
+import com.example.writebehind.StudentWriteQueue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping(path = "/api/student")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class StudentController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    // rows per bulk create, which runs as one transaction over a body held in memory
+    static final int MAX_BULK_SIZE = 10_000;
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    // request attributes of Tomcat's sendfile support, which sends a file from the page cache to the socket
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final StudentService studentService;
+    private final StudentSearchIndex studentSearchIndex;
+    private final StudentExporter studentExporter;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor studentRequestExecutor;
+    // null unless write-behind is enabled, see WriteBehindConfig
+    private final StudentWriteQueue studentWriteQueue;
+    // null unless the change journal is enabled, see JournalConfig
+    private final StudentChangeJournal studentChangeJournal;
+    // null unless lookup coalescing is enabled, see CoalescingConfig
+    private final StudentLookupCoalescer studentLookupCoalescer;
+    // formats the streamed listings can be written in, JSON first so it wins for */*
+    private final Map<MediaType, ObjectMapper> streamMappers = new LinkedHashMap<>();
 
     @Autowired
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, StudentSearchIndex studentSearchIndex, StudentExporter studentExporter,
+                             ObjectMapper objectMapper,
+                             HttpMessageConverters messageConverters, ObjectProvider<StudentWriteQueue> studentWriteQueue,
+                             ObjectProvider<StudentChangeJournal> studentChangeJournal,
+                             ObjectProvider<StudentLookupCoalescer> studentLookupCoalescer,
+                             @Qualifier(AsyncConfig.STUDENT_REQUEST_EXECUTOR) TaskExecutor studentRequestExecutor) {
         this.studentService = studentService;
+        this.studentSearchIndex = studentSearchIndex;
+        this.studentExporter = studentExporter;
+        this.objectMapper = objectMapper;
+        this.studentRequestExecutor = studentRequestExecutor;
+        this.studentWriteQueue = studentWriteQueue.getIfAvailable();
+        this.studentChangeJournal = studentChangeJournal.getIfAvailable();
+        this.studentLookupCoalescer = studentLookupCoalescer.getIfAvailable();
+        streamMappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        // the binary formats use the same mappers as the converters that read and write them everywhere else
+        for (MediaType binaryType : Arrays.asList(APPLICATION_SMILE, MediaType.APPLICATION_CBOR)) {
+            messageConverters.getConverters().stream()
+                             .filter(converter -> converter instanceof AbstractJackson2HttpMessageConverter
+                                     && converter.getSupportedMediaTypes().contains(binaryType))
+                             .findFirst()
+                             .ifPresent(converter -> streamMappers.put(binaryType, ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper()));
+        }
     }
 
+    /**
+     * Answered with 201 and the saved student, or in write-behind mode with 202 and the {@link StudentWrite} to poll.
+     */
     @PostMapping
+    public CompletableFuture<ResponseEntity<?>> createStudent(@RequestBody Student student) {
+        if (studentWriteQueue != null) {
+            checkWritable(student);
+            return CompletableFuture.completedFuture(accepted(studentWriteQueue.create(student)));
+        }
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.status(HttpStatus.CREATED)
+                                                                 .body(studentService.saveStudent(student)), studentRequestExecutor);
+    }
+
+    /**
+     * Creates at most {@link #MAX_BULK_SIZE} students in one transaction; more are answered with 413.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<List<Student>> createStudents(@RequestBody List<Student> students) {
+        log.debug("Creating {} Students", students.size());
+        if (students.size() > MAX_BULK_SIZE) {
+            throw tooManyStudents();
+        }
+        return CompletableFuture.supplyAsync(() -> studentService.saveStudents(students), studentRequestExecutor);
+    }
+
+    /**
+     * Like {@link #createStudents(List)} with one student per line. The body is read into memory before the insert
+     * starts, so the transaction neither holds a connection while the client uploads nor commits part of a body that
+     * turns out to be malformed; reading stops at the first line beyond {@link #MAX_BULK_SIZE}. Malformed lines are
+     * answered with 400.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
-    public Student createStudent(@RequestBody Student student) {
-        log.info("Creating Student {}", student);
-        return studentService.saveStudent(student);
+    public CompletableFuture<List<Student>> createStudentsFromNdjson(InputStream body) throws IOException {
+        List<Student> students = new ArrayList<>();
+        try (MappingIterator<Student> lines = objectMapper.readerFor(Student.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (students.size() == MAX_BULK_SIZE) {
+                    throw tooManyStudents();
+                }
+                students.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed NDJSON: " + e.getOriginalMessage(), e);
+        }
+        return createStudents(students);
+    }
+
+    /**
+     * Tagged with the student's version and the negotiated format; a matching {@code If-None-Match} is answered with 304 before the body is
+     * serialized.
+     */
+    @GetMapping(path = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<Student>> getStudent(@PathVariable("id") long id, WebRequest webRequest) {
+        MediaType mediaType = negotiateType(webRequest);
+        if (studentLookupCoalescer != null) {
+            return studentLookupCoalescer.getStudentById(id).thenApply(student -> found(student, mediaType));
+        }
+        return CompletableFuture.supplyAsync(() -> found(studentService.getStudentById(id), mediaType), studentRequestExecutor);
+    }
+
+    /**
+     * The students with the given {@code ids} (comma separated, at most {@link #MAX_PAGE_SIZE}) in the order asked
+     * for, read with one query; unknown ids are left out. Tagged like a page.
+     */
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<List<Student>>> getStudentsByIds(@RequestParam(name = "ids") List<Long> ids) {
+        checkIds(ids);
+        return CompletableFuture.supplyAsync(() -> {
+            List<Student> students = studentService.getStudentsByIds(ids);
+            return ResponseEntity.ok().eTag(StudentETags.of(students)).body(students);
+        }, studentRequestExecutor);
+    }
+
+    /**
+     * Like {@link #getStudentsByIds(List)} with the ids as a JSON array in the body, for id lists too long for a URL.
+     */
+    @PostMapping(path = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<List<Student>>> lookupStudents(@RequestBody List<Long> ids) {
+        return getStudentsByIds(ids);
+    }
+
+    /**
+     * Replaces the student's names and email. With {@code If-Match} set to the student's ETag the update only
+     * happens if nobody changed the student since, otherwise it is answered with 412. In write-behind mode updates
+     * without {@code If-Match} are queued and answered with 202; conditional ones still run inline, since their
+     * precondition is checked against the current version.
+     */
+    @PutMapping(path = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<?>> updateStudent(@PathVariable("id") long id, @RequestBody Student student,
+                                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                              WebRequest webRequest) {
+        student.setId(id);
+        MediaType mediaType = negotiateType(webRequest);
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            if (studentWriteQueue != null) {
+                checkWritable(student);
+                return CompletableFuture.completedFuture(accepted(studentWriteQueue.update(student)));
+            }
+            return CompletableFuture.supplyAsync(() -> tagged(studentService.updateStudent(student), mediaType), studentRequestExecutor);
+        }
+        long expectedVersion;
+        try {
+            expectedVersion = StudentETags.parseVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        }
+        return CompletableFuture.supplyAsync(() -> tagged(studentService.updateStudent(student, expectedVersion), mediaType), studentRequestExecutor);
+    }
+
+    /**
+     * Streams every student with an id greater than {@code after} as an array in the negotiated format, straight from
+     * a database cursor, so memory stays flat regardless of table size. Weakly tagged with a summary of the range.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getAllStudents(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                                WebRequest webRequest) {
+        // an aggregate over the range is far cheaper than streaming it, so polling clients get a 304 when nothing changed
+        if (webRequest.checkNotModified(StudentETags.of(studentService.getStudentsVersion(after)))) {
+            return null;
+        }
+        MediaType mediaType = negotiateType(webRequest);
+        return ResponseEntity.ok()
+                             .contentType(mediaType)
+                             .body(this.<Student>writeArray(mediaType, Student.class, action -> studentService.streamStudentsAfter(after, action)));
+    }
+
+    /**
+     * Keyset page of at most {@code limit} students; pass the last id of a page as {@code after} to fetch the next one.
+     * Tagged with a digest of the page's ids and versions.
+     */
+    @GetMapping(params = "limit", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<List<Student>>> getStudentsPage(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                                            @RequestParam(name = "limit") int limit) {
+        checkLimit(limit);
+        return CompletableFuture.supplyAsync(() -> {
+            List<Student> page = studentService.getStudentsAfter(after, limit);
+            return ResponseEntity.ok().eTag(StudentETags.of(page)).body(page);
+        }, studentRequestExecutor);
+    }
+
+    /**
+     * Like {@link #getAllStudents(long, WebRequest)} but with only the requested {@code fields} (comma separated attribute names)
+     * selected from the database; the id is always included. Tagged and answered with 304 the same way.
+     */
+    @GetMapping(params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getAllStudentFields(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                                     @RequestParam(name = "fields") List<String> fields,
+                                                                     WebRequest webRequest) {
+        Set<StudentField> selected = parseFields(fields);
+        if (webRequest.checkNotModified(StudentETags.of(studentService.getStudentsVersion(after)))) {
+            return null;
+        }
+        MediaType mediaType = negotiateType(webRequest);
+        return ResponseEntity.ok()
+                             .contentType(mediaType)
+                             .body(this.<Map<String, Object>>writeArray(mediaType, Map.class, action -> studentService.streamStudentFieldsAfter(selected, after, action)));
+    }
+
+    /**
+     * Like {@link #getStudentsPage(long, int)} but with only the requested {@code fields} selected.
+     */
+    @GetMapping(params = {"fields", "limit"}, produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<List<Map<String, Object>>> getStudentFieldsPage(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                                             @RequestParam(name = "limit") int limit,
+                                                                             @RequestParam(name = "fields") List<String> fields) {
+        checkLimit(limit);
+        Set<StudentField> selected = parseFields(fields);
+        return CompletableFuture.supplyAsync(() -> studentService.getStudentFieldsAfter(selected, after, limit), studentRequestExecutor);
+    }
+
+    /**
+     * Every student as CSV or NDJSON, ordered by id, written as it is read from a JDBC cursor. With
+     * {@code snapshot=true} the export is written to a file first, which is reused until the table changes. A current
+     * snapshot is sent with sendfile where the connector supports it; otherwise the snapshot is written and sent from
+     * the streamed body, so the container thread never waits for the export.
+     */
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(name = "format", defaultValue = "ndjson") String format,
+                                                                @RequestParam(name = "snapshot", defaultValue = "false") boolean snapshot,
+                                                                HttpServletRequest request) throws IOException {
+        StudentExportFormat exportFormat;
+        try {
+            exportFormat = StudentExportFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                                            .contentType(exportFormat.getMediaType())
+                                                            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                                                                                                       .filename("students." + exportFormat.getExtension())
+                                                                                                                       .build()
+                                                                                                                       .toString());
+        if (!snapshot) {
+            return response.body(outputStream -> studentExporter.export(exportFormat, outputStream));
+        }
+        Optional<Path> current = studentExporter.currentSnapshot(exportFormat);
+        if (!current.isPresent()) {
+            // length unknown until written, so sent chunked
+            return response.body(outputStream -> {
+                Path file = studentExporter.snapshot(exportFormat);
+                transfer(file, Files.size(file), outputStream);
+            });
+        }
+        Path file = current.get();
+        long size = Files.size(file);
+        response.contentLength(size);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat sends the file itself once the handler returned, without copying it through the JVM
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return response.build();
+        }
+        return response.body(outputStream -> transfer(file, size, outputStream));
+    }
+
+    /**
+     * Students whose names or email match every word of {@code q} by prefix or with a typo, best matches first. Served
+     * from memory on the request thread, see {@link StudentSearchIndex}.
+     */
+    @GetMapping(path = "/search", params = "q")
+    public List<Student> searchStudents(@RequestParam(name = "q") String query,
+                                        @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        checkLimit(limit);
+        if (query.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must not be blank");
+        }
+        return studentSearchIndex.search(query, limit);
+    }
+
+    /**
+     * Outcome of a write accepted in write-behind mode: {@code PENDING}, {@code COMPLETED} with the student's id and
+     * version, or {@code FAILED} with the reason.
+     */
+    @GetMapping(path = "/writes/{trackingId}")
+    public ResponseEntity<StudentWrite> getWrite(@PathVariable("trackingId") String trackingId) {
+        if (studentWriteQueue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return studentWriteQueue.getWrite(trackingId)
+                                .map(ResponseEntity::ok)
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams the journaled changes from offset {@code since} on, oldest first, at most {@code limit} of them if given.
+     * Continue from the {@code nextOffset} of the last change; an empty array means nothing changed since. Offsets no
+     * longer retained are answered with 410, after which a consumer has to start over from the full listing. A stream
+     * overtaken by the journal deleting old segments ends early, so continuing from it is answered with 410 as well.
+     * Without {@code limit} the stream is bound by the streaming timeout only, see {@link AsyncConfig}.
+     */
+    @GetMapping(path = "/changes", params = "since", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getChanges(@RequestParam(name = "since") long since,
+                                                            @RequestParam(name = "limit", required = false) Integer limit,
+                                                            WebRequest webRequest) {
+        if (studentChangeJournal == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (since < studentChangeJournal.getStartOffset()) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Changes before offset " + studentChangeJournal.getStartOffset() + " are no longer retained");
+        }
+        if (!studentChangeJournal.isOffset(since)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No change starts at offset " + since);
+        }
+        if (limit != null && limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        int maxChanges = limit == null ? Integer.MAX_VALUE : limit;
+        MediaType mediaType = negotiateType(webRequest);
+        return ResponseEntity.ok()
+                             .contentType(mediaType)
+                             .body(this.<StudentChange>writeArray(mediaType, StudentChange.class, action -> studentChangeJournal.read(since, maxChanges, action)));
+    }
+
+    private static void transfer(Path file, long size, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    private static ResponseEntity<StudentWrite> accepted(StudentWrite write) {
+        return ResponseEntity.accepted()
+                             .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                                                                  .path("/api/student/writes/{trackingId}")
+                                                                  .buildAndExpand(write.getTrackingId())
+                                                                  .toUri())
+                             .body(write);
+    }
+
+    // a queued write fails long after the response, so what the database would reject for certain is rejected here
+    private static void checkWritable(Student student) {
+        if (isBlank(student.getFirstName()) || isBlank(student.getLastName())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "firstName and lastName are required");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static ResponseEntity<Student> found(Optional<Student> student, MediaType mediaType) {
+        return student.map(found -> tagged(found, mediaType))
+                      .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // written in the format the tag names, not in whatever the converters would pick
+    private static ResponseEntity<Student> tagged(Student student, MediaType mediaType) {
+        return ResponseEntity.ok().contentType(mediaType).eTag(StudentETags.of(student, mediaType)).body(student);
+    }
+
+    private static ResponseStatusException tooManyStudents() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "At most " + MAX_BULK_SIZE + " students per request");
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static void checkIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_PAGE_SIZE || ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must hold between 1 and " + MAX_PAGE_SIZE + " ids");
+        }
+    }
+
+    private static Set<StudentField> parseFields(List<String> fields) {
+        try {
+            return StudentField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * The first of the formats students are written in that is acceptable to the client, in the client's order of
+     * preference. The mapping's {@code produces} has already rejected requests that accept none of them.
+     */
+    private MediaType negotiateType(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return negotiateType(MediaType.parseMediaTypes(accept), streamMappers.keySet());
     }
 
-    @GetMapping(path = "/{id}")
-    public ResponseEntity<Student> getStudent(@PathVariable("id") long id) {
-        log.info("Fetching Student Details with Id {}", id);
-        return studentService.getStudentById(id)
-                             .map(ResponseEntity::ok)
-                             .orElseGet(() -> ResponseEntity.notFound()
-                                                            .build());
+    static MediaType negotiateType(List<MediaType> acceptedTypes, Collection<MediaType> types) {
+        List<MediaType> sortedTypes = new ArrayList<>(acceptedTypes);
+        MediaType.sortBySpecificityAndQuality(sortedTypes);
+        for (MediaType acceptedType : sortedTypes) {
+            for (MediaType type : types) {
+                if (acceptedType.getQualityValue() > 0 && acceptedType.isCompatibleWith(type)) {
+                    return type;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
     }
 
-    @GetMapping
-    public List<Student> getAllStudents() {
-        log.info("Fetching All Students");
-        return studentService.getAllStudents();
+    private <T> StreamingResponseBody writeArray(MediaType mediaType, Class<?> type, Consumer<Consumer<T>> source) {
+        ObjectMapper mapper = streamMappers.get(mediaType);
+        return outputStream -> {
+            // no flush per element, the generator and servlet buffers decide when bytes go out
+            ObjectWriter writer = mapper.writerFor(type)
+                                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.accept(element -> {
+                    try {
+                        writer.writeValue(generator, element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
     }
 }
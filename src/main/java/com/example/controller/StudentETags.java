@@ -0,0 +1,59 @@
+package com.example.controller;
+
+import com.example.entity.Student;
+import com.example.repository.StudentListVersion;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Entity tags for student representations. A single student is strongly tagged with its version and the format it is
+ * written in, since a strong tag names one representation; the version is what {@code If-Match} is parsed back into. Pages are tagged with a digest of the ids and versions they were rendered
+ * from, and streamed listings before they are read from a {@link StudentListVersion}, which only summarises the
+ * range. Both are only compared by {@code If-None-Match}, so they are weak, which also lets Tomcat compress them.
+ */
+final class StudentETags {
+
+    private StudentETags() {
+    }
+
+    static String of(Student student, MediaType format) {
+        return quote(student.getVersion() + "-" + format.getSubtype());
+    }
+
+    static String of(List<Student> students) {
+        long digest = 1;
+        for (Student student : students) {
+            digest = 31 * (31 * digest + student.getId()) + student.getVersion();
+        }
+        return "W/" + quote(students.size() + "-" + Long.toHexString(digest));
+    }
+
+    static String of(StudentListVersion version) {
+        return "W/" + quote(Long.toHexString(version.getCount()) + "-" + Long.toHexString(version.getMaxId())
+                + "-" + Long.toHexString(version.getIdSum()) + "-" + Long.toHexString(version.getVersionSum()));
+    }
+
+    /**
+     * The version named by an {@code If-Match} value holding a single strong tag of {@link #of(Student, MediaType)}, in
+     * any of the formats.
+     *
+     * @throws IllegalArgumentException for {@code *}, weak tags, lists or anything else this class did not produce
+     */
+    static long parseVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        int formatStart = tag.indexOf('-');
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"' || formatStart < 0) {
+            throw new IllegalArgumentException("Not a student entity tag " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, formatStart));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a student entity tag " + ifMatch, e);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
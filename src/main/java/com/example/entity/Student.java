@@ -5,20 +5,39 @@ import lombok.*;
 import javax.persistence.*;
 
 @Entity
-@Table(name = "students")
+// email lookups, including (first_name, email) and (last_name, email), are served by the unique email index
+@Table(name = "students",
+        uniqueConstraints = @UniqueConstraint(name = Student.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        indexes = @Index(name = Student.NAME_INDEX, columnList = "first_name, last_name"))
+// same table for the R2DBC repository, see ReactiveStudentRepository
+@org.springframework.data.relational.core.mapping.Table("students")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString
+// ids only, names and emails stay out of logs
+@ToString(onlyExplicitlyIncluded = true)
 public class Student {
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_students_email";
+    public static final String NAME_INDEX = "idx_students_first_name_last_name";
+    public static final String ID_SEQUENCE = "students_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // pooled sequence instead of IDENTITY so Hibernate can batch inserts and hand out ids without a round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ToString.Include
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private long id;
     @Column(name = "first_name", nullable = false)
     private String firstName;
     @Column(name = "last_name", nullable = false)
     private String lastName;
     private String email;
+    // bumped by every update, the strong ETag of the student representation
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
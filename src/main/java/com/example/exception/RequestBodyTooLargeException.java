@@ -0,0 +1,13 @@
+package com.example.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown while a request body is read once it grew past its limit; an {@link IOException} so it can surface from
+ * the body's stream.
+ */
+public class RequestBodyTooLargeException extends IOException {
+    public RequestBodyTooLargeException(String message) {
+        super(message);
+    }
+}
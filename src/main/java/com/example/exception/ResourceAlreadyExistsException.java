@@ -2,6 +2,7 @@ package com.example.exception;
 
 public class ResourceAlreadyExistsException extends RuntimeException {
     public ResourceAlreadyExistsException(String message) {
+        super(message);
     }
 
     public ResourceAlreadyExistsException(String message, Throwable cause) {
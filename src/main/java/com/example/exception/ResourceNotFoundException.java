@@ -2,6 +2,7 @@ package com.example.exception;
 
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
+        super(message);
     }
 
     public ResourceNotFoundException(String message, Throwable cause) {
@@ -0,0 +1,11 @@
+package com.example.exception;
+
+public class ResourceVersionMismatchException extends RuntimeException {
+    public ResourceVersionMismatchException(String message) {
+        super(message);
+    }
+
+    public ResourceVersionMismatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
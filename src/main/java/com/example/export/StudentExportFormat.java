@@ -0,0 +1,44 @@
+package com.example.export;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Formats {@link StudentExporter} writes. Both hold one student per line, so consumers can process an export while it
+ * is still being downloaded.
+ */
+public enum StudentExportFormat {
+
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    StudentExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException for anything but {@code csv} and {@code ndjson}, in any case
+     */
+    public static StudentExportFormat parse(String format) {
+        for (StudentExportFormat candidate : values()) {
+            if (candidate.extension.equals(format.toLowerCase(Locale.ROOT))) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format " + format + ", expected csv or ndjson");
+    }
+}
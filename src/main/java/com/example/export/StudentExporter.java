@@ -0,0 +1,274 @@
+package com.example.export;
+
+import com.example.repository.StudentListVersion;
+import com.example.service.StudentChangedEvent;
+import com.example.service.StudentService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exports the whole students table as CSV or NDJSON.
+ * <p>
+ * Rows are read through a forward-only, read-only JDBC cursor that fetches {@code fetchSize} rows per round trip and
+ * are written to the output as they are read, through a buffer of {@link #BUFFER_SIZE} bytes. No entities are
+ * materialised and nothing is held per row once it is written, so memory stays flat whatever the table size. The
+ * export runs in one read-only transaction, which some drivers need to stream a cursor instead of buffering the
+ * whole result.
+ * <p>
+ * Snapshots are exports written to a file under {@code snapshotDirectory}. A snapshot is reused until a write is
+ * committed through this instance's {@link StudentService} (counted from its {@link StudentChangedEvent}s), or the
+ * {@link StudentListVersion} summary of the table changes, or it is older than {@code snapshotMaxAge}. The summary
+ * catches most writes made elsewhere, by other instances or the reactive stack, but can miss some, so
+ * {@code snapshotMaxAge} bounds how long those go unseen. The two newest snapshots of a format are kept, so one that
+ * is still being sent is not deleted underneath the download.
+ */
+@Slf4j
+public class StudentExporter {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final String[] COLUMNS = {"id", "firstName", "lastName", "email", "version"};
+
+    private static final String SELECT = "select id, first_name, last_name, email, version from students order by id";
+    private static final int RETAINED_SNAPSHOTS = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StudentService studentService;
+    private final JsonFactory jsonFactory;
+    private final Path snapshotDirectory;
+    private final long snapshotMaxAgeMillis;
+    // tells this run's snapshots from those of earlier runs, whose change counts started from 0 as well
+    private final String run = Long.toHexString(System.currentTimeMillis());
+    private final AtomicLong changes = new AtomicLong();
+
+    public StudentExporter(JdbcTemplate jdbcTemplate, TransactionTemplate readOnlyTransaction, StudentService studentService,
+                           JsonFactory jsonFactory, Path snapshotDirectory, Duration snapshotMaxAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.studentService = studentService;
+        this.jsonFactory = jsonFactory;
+        this.snapshotDirectory = snapshotDirectory;
+        this.snapshotMaxAgeMillis = snapshotMaxAge.toMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Writes every student to {@code out}, ordered by id, and returns how many were written. {@code out} is flushed but
+     * left open.
+     */
+    public long export(StudentExportFormat format, OutputStream out) throws IOException {
+        try (RowWriter writer = format == StudentExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(jsonFactory, out)) {
+            long[] rows = new long[1];
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(SELECT, resultSet -> {
+                    try {
+                        writer.write(resultSet);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return rows[0];
+        }
+    }
+
+    /**
+     * A snapshot of the table as it is now in {@code format}, written first unless the last one is still current.
+     */
+    public Path snapshot(StudentExportFormat format) throws IOException {
+        // read before the export, so a write committed meanwhile makes the next call write a new snapshot
+        Path snapshot = snapshotPath(format);
+        if (isCurrent(snapshot)) {
+            return snapshot;
+        }
+        Files.createDirectories(snapshotDirectory);
+        Path partial = Files.createTempFile(snapshotDirectory, "students-", ".partial");
+        long start = System.nanoTime();
+        long rows;
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            rows = export(format, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        // readers only ever see complete snapshots; one replaced after its max age stays readable for its downloads
+        Files.move(partial, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote snapshot {} of {} students in {} ms", snapshot.getFileName(), rows, (System.nanoTime() - start) / 1_000_000);
+        deleteOldSnapshots(format);
+        return snapshot;
+    }
+
+    /**
+     * The last snapshot in {@code format} if it is still current, without writing one; costs a single aggregate query.
+     */
+    public Optional<Path> currentSnapshot(StudentExportFormat format) {
+        Path snapshot = snapshotPath(format);
+        return isCurrent(snapshot) ? Optional.of(snapshot) : Optional.empty();
+    }
+
+    private Path snapshotPath(StudentExportFormat format) {
+        long changesSeen = changes.get();
+        StudentListVersion version = studentService.getStudentsVersion(0);
+        return snapshotDirectory.resolve(String.format("students-%s-%x-%x-%x-%x-%x.%s", run, changesSeen,
+                version.getCount(), version.getMaxId(), version.getIdSum(), version.getVersionSum(), format.getExtension()));
+    }
+
+    private boolean isCurrent(Path snapshot) {
+        return Files.exists(snapshot) && System.currentTimeMillis() - lastModified(snapshot) < snapshotMaxAgeMillis;
+    }
+
+    private void deleteOldSnapshots(StudentExportFormat format) throws IOException {
+        List<Path> snapshots;
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            snapshots = files.filter(file -> file.getFileName().toString().startsWith("students-")
+                                     && file.getFileName().toString().endsWith("." + format.getExtension()))
+                             .sorted(Comparator.comparing(StudentExporter::lastModified).reversed())
+                             .collect(Collectors.toList());
+        }
+        for (Path old : snapshots.subList(Math.min(RETAINED_SNAPSHOTS, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            // deleted meanwhile, sorts last and is deleted again
+            return 0;
+        }
+    }
+
+    private interface RowWriter extends AutoCloseable {
+
+        void write(ResultSet row) throws IOException, SQLException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * RFC 4180: a header line, fields quoted only when they contain a separator, quote or line break, nulls empty.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws IOException, SQLException {
+            writer.write(Long.toString(row.getLong(1)));
+            writer.write(',');
+            writeField(row.getString(2));
+            writer.write(',');
+            writeField(row.getString(3));
+            writer.write(',');
+            writeField(row.getString(4));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong(5)));
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (!needsQuotes(value)) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line, with the field names of the student representation.
+     */
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+            generator = jsonFactory.createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are ended explicitly instead of separating root values
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet row) throws IOException, SQLException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNS[0], row.getLong(1));
+            generator.writeStringField(COLUMNS[1], row.getString(2));
+            generator.writeStringField(COLUMNS[2], row.getString(3));
+            generator.writeStringField(COLUMNS[3], row.getString(4));
+            generator.writeNumberField(COLUMNS[4], row.getLong(5));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
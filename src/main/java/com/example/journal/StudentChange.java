@@ -0,0 +1,55 @@
+package com.example.journal;
+
+import com.example.entity.Student;
+import com.example.service.StudentChangedEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * One record of the {@link StudentChangeJournal}. Pass {@link #getNextOffset()} of the last change read as the offset
+ * of the next read.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudentChange {
+
+    @ToString.Include
+    private final long offset;
+    private final long nextOffset;
+    @ToString.Include
+    private final StudentChangedEvent.Type type;
+    @ToString.Include
+    private final long id;
+    private final Instant timestamp;
+    // the student as written, null for deletes
+    private final Student student;
+
+    StudentChange(long offset, long nextOffset, StudentChangedEvent.Type type, long id, Instant timestamp, Student student) {
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.type = type;
+        this.id = id;
+        this.timestamp = timestamp;
+        this.student = student;
+    }
+
+    /**
+     * The change as the event it was journaled from, for replaying it into listeners of {@link StudentChangedEvent}.
+     */
+    @JsonIgnore
+    public StudentChangedEvent toEvent() {
+        switch (type) {
+            case SAVED:
+                return StudentChangedEvent.saved(student);
+            case UPDATED:
+                return StudentChangedEvent.updated(student);
+            default:
+                return StudentChangedEvent.deleted(id);
+        }
+    }
+}
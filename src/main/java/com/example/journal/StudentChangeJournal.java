@@ -0,0 +1,371 @@
+package com.example.journal;
+
+import com.example.entity.Student;
+import com.example.service.StudentChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the committed student writes, for consumers that tail changes instead of re-reading the table and
+ * for rebuilding derived state such as caches or indexes after a restart.
+ * <p>
+ * Records are appended after commit, from the {@link StudentChangedEvent}s of {@code StudentService}, to segment files
+ * named after the offset of their first byte. An offset is the position of a record across all segments. A record is
+ * its body length and the CRC32 of the body, then the body: type, timestamp and id and, unless the student was
+ * deleted, its version and names as length-prefixed UTF-8. Records of concurrent transactions land in the order their
+ * commits finished; the version tells which of two records of one student is newer.
+ * <p>
+ * Segments are preallocated and memory mapped, so an append is a copy into the page cache. Records survive a crash of
+ * the process, but a crash of the machine only once the OS wrote them back, unless every append is forced to disk.
+ * A record that does not fit into the current segment starts a new one and the oldest segments beyond
+ * {@code retainedSegments} are deleted. On open the last segment is scanned and a torn record at its end cut off.
+ * <p>
+ * Appends are serialised. Reads take no lock, they only read up to the end offset published by the last append. A
+ * read that falls behind a roll deleting the segment it is at stops there; reading on from that offset fails as
+ * not retained.
+ */
+@Slf4j
+public class StudentChangeJournal implements Closeable {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}\\.log");
+    private static final int MIN_SEGMENT_SIZE = 1024;
+    private static final int NULL_LENGTH = -1;
+    private static final StudentChangedEvent.Type[] TYPES = StudentChangedEvent.Type.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int retainedSegments;
+    private final boolean force;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    // the segment appended to, its position is the end of its records; guarded by this
+    private MappedByteBuffer current;
+    private long currentBase;
+    private volatile long startOffset;
+    private volatile long endOffset;
+
+    public StudentChangeJournal(Path directory, int segmentSize, int retainedSegments, boolean force) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Journal segments need at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        if (retainedSegments < 1) {
+            throw new IllegalArgumentException("Journal needs to retain at least one segment");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+        this.force = force;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve("journal.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal directory " + directory + " is used by another journal");
+        }
+        lock = fileLock;
+        for (long base : listSegments()) {
+            segments.put(base, map(base, false));
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, map(0, true));
+        }
+        currentBase = segments.lastKey();
+        current = segments.get(currentBase);
+        current.position(recover(current));
+        startOffset = segments.firstKey();
+        endOffset = currentBase + current.position();
+        log.info("Opened student change journal {} at offsets {} to {}", directory, startOffset, endOffset);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        // the write is committed already, failing the request now would only make the client retry it
+        try {
+            append(event);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not journal {}", event, e);
+        }
+    }
+
+    /**
+     * Appends the change and returns its offset.
+     */
+    public synchronized long append(StudentChangedEvent event) throws IOException {
+        Student student = event.getStudent();
+        byte[] firstName = null;
+        byte[] lastName = null;
+        byte[] email = null;
+        int length = 1 + Long.BYTES + Long.BYTES;
+        if (event.getType() != StudentChangedEvent.Type.DELETED) {
+            firstName = encode(student.getFirstName());
+            lastName = encode(student.getLastName());
+            email = encode(student.getEmail());
+            length += Long.BYTES + encodedLength(firstName) + encodedLength(lastName) + encodedLength(email);
+        }
+        if (HEADER_SIZE + length > current.remaining()) {
+            roll();
+            if (HEADER_SIZE + length > current.remaining()) {
+                throw new IllegalArgumentException("Change of student " + event.getId() + " does not fit into a journal segment");
+            }
+        }
+        int position = current.position();
+        current.position(position + HEADER_SIZE);
+        current.put((byte) event.getType().ordinal());
+        current.putLong(System.currentTimeMillis());
+        current.putLong(event.getId());
+        if (event.getType() != StudentChangedEvent.Type.DELETED) {
+            current.putLong(student.getVersion());
+            putString(current, firstName);
+            putString(current, lastName);
+            putString(current, email);
+        }
+        current.putInt(position + Integer.BYTES, checksum(current, position, length));
+        current.putInt(position, length);
+        if (force) {
+            current.force();
+        }
+        endOffset = currentBase + current.position();
+        return currentBase + position;
+    }
+
+    /**
+     * Passes up to {@code limit} changes from {@code offset} on to {@code action}, oldest first, and returns the offset
+     * to continue from. Stops early, at the first change no longer retained, if segments are deleted meanwhile.
+     *
+     * @throws IllegalArgumentException if no change starts at {@code offset} and it is not the end of the journal
+     */
+    public long read(long offset, int limit, Consumer<StudentChange> action) {
+        long end = endOffset;
+        if (!isOffset(offset, end)) {
+            if (offset < startOffset) {
+                // a valid offset when the caller checked it, deleted by a roll since
+                return offset;
+            }
+            throw new IllegalArgumentException("No change starts at offset " + offset);
+        }
+        int count = 0;
+        while (count < limit && offset < end) {
+            Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(offset);
+            if (segment == null) {
+                // deleted by a roll while reading, the caller continues from here and is told it is gone
+                break;
+            }
+            int position = (int) (offset - segment.getKey());
+            ByteBuffer buffer = segment.getValue().duplicate();
+            int length = position > buffer.capacity() - HEADER_SIZE ? 0 : buffer.getInt(position);
+            if (length == 0) {
+                // the rest of the segment did not fit the next record, which starts the following segment
+                Long next = segments.higherKey(segment.getKey());
+                if (next == null) {
+                    break;
+                }
+                offset = next;
+                continue;
+            }
+            action.accept(decode(buffer, offset, position, length));
+            offset += HEADER_SIZE + length;
+            count++;
+        }
+        return offset;
+    }
+
+    /**
+     * Passes every retained change on to {@code action}, oldest first, and returns the offset to continue from.
+     */
+    public long replay(Consumer<StudentChange> action) {
+        return read(startOffset, Integer.MAX_VALUE, action);
+    }
+
+    /**
+     * Whether a change starts at {@code offset} or it is the end of the journal, i.e. whether it can be read from.
+     */
+    public boolean isOffset(long offset) {
+        return isOffset(offset, endOffset);
+    }
+
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        current.force();
+        lock.release();
+        lockChannel.close();
+    }
+
+    private boolean isOffset(long offset, long end) {
+        if (offset == end) {
+            return true;
+        }
+        if (offset < startOffset || offset > end) {
+            return false;
+        }
+        Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(offset);
+        return segment != null && recordLength(segment.getValue(), (int) (offset - segment.getKey())) > 0;
+    }
+
+    private void roll() throws IOException {
+        long base = currentBase + current.position();
+        MappedByteBuffer segment = map(base, true);
+        segments.put(base, segment);
+        current = segment;
+        currentBase = base;
+        while (segments.size() > retainedSegments) {
+            long oldest = segments.firstKey();
+            // published before the segment goes, so a read that misses it sees that it is no longer retained
+            startOffset = segments.higherKey(oldest);
+            segments.remove(oldest);
+            // readers still holding the mapping keep reading it, the file is only gone from the directory
+            Files.deleteIfExists(segmentPath(oldest));
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                 .filter(name -> SEGMENT_NAME.matcher(name).matches())
+                 .forEach(name -> bases.add(Long.parseLong(name.substring(0, 20))));
+        }
+        bases.sort(null);
+        return bases;
+    }
+
+    private MappedByteBuffer map(long base, boolean create) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // mapping beyond the end of a new file extends it, sparse until written
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, create ? segmentSize : channel.size());
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d.log", base));
+    }
+
+    /**
+     * Position after the last intact record of the segment. Whatever follows it is zeroed, so a torn record is not
+     * mistaken for the start of the next one.
+     */
+    private int recover(MappedByteBuffer segment) {
+        int position = 0;
+        int length;
+        while ((length = recordLength(segment, position)) > 0) {
+            position += HEADER_SIZE + length;
+        }
+        if (position <= segment.capacity() - HEADER_SIZE && segment.getLong(position) != 0) {
+            log.warn("Cutting off a torn record at the end of journal segment {}", segmentPath(currentBase));
+            for (int i = position; i < segment.capacity(); i++) {
+                segment.put(i, (byte) 0);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Body length of the intact record at {@code position}, or -1 if there is none.
+     */
+    private static int recordLength(ByteBuffer segment, int position) {
+        if (position < 0 || position > segment.capacity() - HEADER_SIZE) {
+            return -1;
+        }
+        int length = segment.getInt(position);
+        if (length <= 0 || length > segment.capacity() - position - HEADER_SIZE) {
+            return -1;
+        }
+        return checksum(segment, position, length) == segment.getInt(position + Integer.BYTES) ? length : -1;
+    }
+
+    private static int checksum(ByteBuffer segment, int position, int length) {
+        ByteBuffer body = segment.duplicate();
+        body.limit(position + HEADER_SIZE + length);
+        body.position(position + HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static StudentChange decode(ByteBuffer buffer, long offset, int position, int length) {
+        buffer.position(position + HEADER_SIZE);
+        StudentChangedEvent.Type type = TYPES[buffer.get()];
+        Instant timestamp = Instant.ofEpochMilli(buffer.getLong());
+        long id = buffer.getLong();
+        Student student = null;
+        if (type != StudentChangedEvent.Type.DELETED) {
+            long version = buffer.getLong();
+            String firstName = getString(buffer);
+            String lastName = getString(buffer);
+            String email = getString(buffer);
+            student = new Student(id, firstName, lastName, email, version);
+        }
+        return new StudentChange(offset, offset + HEADER_SIZE + length, type, id, timestamp, student);
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Journaled names are limited to " + Short.MAX_VALUE + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int encodedLength(byte[] value) {
+        return Short.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) NULL_LENGTH);
+        } else {
+            buffer.putShort((short) value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
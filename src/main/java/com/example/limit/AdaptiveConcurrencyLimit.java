@@ -0,0 +1,97 @@
+package com.example.limit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts to observed latency, additive increase / multiplicative decrease.
+ * <p>
+ * Every completed request reports its latency. A request slower than {@code latencyThreshold}, or one that failed,
+ * shrinks the limit by {@code backoffRatio}, at most once per {@code latencyThreshold} so one burst of slow requests
+ * counts as one signal instead of collapsing the limit to its minimum. A fast request grows the limit by one, but only
+ * while at least half of it is in use, so an idle service does not drift up to {@code maxLimit} and then admit a whole
+ * burst at once. The limit stays within {@code [minLimit, maxLimit]}.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    // guarded by this
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio,
+                             LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.lastDecrease = nanoClock.getAsLong() - latencyThresholdNanos;
+    }
+
+    /**
+     * Admits a request while fewer than {@code share} of the limit are in flight, at least one. A request that was
+     * admitted must be {@link #release released} exactly once.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request. With {@code sampled} unset the request only gives back its slot, for requests
+     * whose latency says nothing about load, e.g. listings that take as long as the table is big.
+     */
+    public void release(long latencyNanos, boolean failed, boolean sampled) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (sampled) {
+            onSample(latencyNanos, failed, inFlightBefore);
+        }
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean failed, int inFlightBefore) {
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            long now = nanoClock.getAsLong();
+            if (now - lastDecrease >= latencyThresholdNanos) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                lastDecrease = now;
+            }
+        } else if (inFlightBefore * 2 >= limit && limit < maxLimit) {
+            limit++;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Sheds student API requests beyond an {@link AdaptiveConcurrencyLimit}, one for reads and one for writes, so a slow
+ * database shows up as fast 503s with {@code Retry-After} instead of requests piling up on container threads.
+ * <p>
+ * Bulk reads, listings that stream the whole table or export it, may only take {@code bulkShare} of the read limit,
+ * so they are shed first and single lookups keep the rest. Their latency grows with the table rather than with load,
+ * so they hold a slot but never move the limit. A request stays in flight until its async processing completes;
+ * server errors, timeouts and exceptions count as failures.
+ * <p>
+ * Published as {@code student.concurrency.limit} and {@code student.concurrency.in-flight} per class, and
+ * {@code student.concurrency.rejected} per class and priority.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/student";
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final double bulkShare;
+    private final String retryAfterSeconds;
+    private final Counter readRejected;
+    private final Counter bulkRejected;
+    private final Counter writeRejected;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit readLimit, AdaptiveConcurrencyLimit writeLimit, double bulkShare,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.bulkShare = bulkShare;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        registerGauges(meterRegistry, "read", readLimit);
+        registerGauges(meterRegistry, "write", writeLimit);
+        this.readRejected = rejectedCounter(meterRegistry, "read", "normal");
+        this.bulkRejected = rejectedCounter(meterRegistry, "read", "bulk");
+        this.writeRejected = rejectedCounter(meterRegistry, "write", "normal");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = isWrite(request);
+        boolean bulk = !write && isBulk(request);
+        AdaptiveConcurrencyLimit limit = write ? writeLimit : readLimit;
+        if (!limit.tryAcquire(bulk ? bulkShare : 1.0)) {
+            (write ? writeRejected : bulk ? bulkRejected : readRejected).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(limit, response, start, !bulk));
+            } else {
+                limit.release(System.nanoTime() - start, isServerError(response), !bulk);
+            }
+            released = true;
+        } finally {
+            if (!released) {
+                limit.release(System.nanoTime() - start, true, !bulk);
+            }
+        }
+    }
+
+    // the multi-get lookup only reads, whatever its method
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)) {
+            return false;
+        }
+        return !(API_PATH + "/lookup").equals(path(request));
+    }
+
+    // unbounded listings: the full or sparse listing without a page limit or ids, the export and the change feed
+    private static boolean isBulk(HttpServletRequest request) {
+        String path = path(request);
+        boolean listing = API_PATH.equals(path) || (API_PATH + "/export").equals(path) || (API_PATH + "/changes").equals(path);
+        return listing && request.getParameter("limit") == null && request.getParameter("ids") == null;
+    }
+
+    private static String path(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static boolean isServerError(HttpServletResponse response) {
+        return response.getStatus() >= 500;
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, String requestClass, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("student.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+             .description("Requests of the class admitted at once")
+             .tag("class", requestClass)
+             .register(meterRegistry);
+        Gauge.builder("student.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+             .description("Admitted requests of the class not yet completed")
+             .tag("class", requestClass)
+             .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String requestClass, String priority) {
+        return Counter.builder("student.concurrency.rejected")
+                      .description("Requests shed with 503 because the limit of their class was reached")
+                      .tag("class", requestClass)
+                      .tag("priority", priority)
+                      .register(meterRegistry);
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final HttpServletResponse response;
+        private final long start;
+        private final boolean sampled;
+        private volatile boolean failed;
+
+        private ReleasingListener(AdaptiveConcurrencyLimit limit, HttpServletResponse response, long start, boolean sampled) {
+            this.limit = limit;
+            this.response = response;
+            this.start = start;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(System.nanoTime() - start, failed || isServerError(response), sampled);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are dropped when async processing is restarted, keep releasing on the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
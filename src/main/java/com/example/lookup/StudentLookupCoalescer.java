@@ -0,0 +1,196 @@
+package com.example.lookup;
+
+import com.example.entity.Student;
+import com.example.routing.ReadYourWrites;
+import com.example.service.StudentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.core.task.TaskExecutor;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges concurrent single student lookups by id into batches served by one
+ * {@link StudentService#getStudentsByIds(java.util.Collection)} call.
+ * <p>
+ * Ids held by the by-id cache are answered from it at once, without waiting for a window or changing threads. The
+ * first lookup of a batch opens a window of {@code window}; every lookup arriving within it joins the batch, and
+ * a lookup of an id already in the batch shares its result instead of adding a row. The batch is sent when the window
+ * closes or once it holds {@code maxBatchSize} ids, whichever comes first. A lookup never joins a batch that has
+ * already been sent, so it cannot be answered with a read that started before it arrived, e.g. one that misses the
+ * caller's own preceding write. Lookups that must read from the primary ({@link ReadYourWrites#isPrimaryRequired()})
+ * are batched apart from the others, and their batches are read from the primary.
+ * <p>
+ * Batches run on {@code executor}; a rejected batch fails all of its lookups with the rejection. Published as
+ * {@code student.lookup.batch.size} (ids per query) and {@code student.lookup.coalesced} (lookups that shared a
+ * pending one).
+ */
+@Slf4j
+public class StudentLookupCoalescer implements Closeable {
+
+    private final StudentService studentService;
+    // null when caching is off
+    private final Cache studentsById;
+    private final TaskExecutor executor;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final DistributionSummary batchSize;
+    private final Counter coalesced;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private Batch pending = new Batch(false);
+    // guarded by lock
+    private Batch pendingPrimary = new Batch(true);
+
+    public StudentLookupCoalescer(StudentService studentService, Cache studentsById, TaskExecutor executor, Duration window,
+                                  int maxBatchSize, MeterRegistry meterRegistry) {
+        if (window.isNegative() || window.isZero() || maxBatchSize < 1) {
+            throw new IllegalArgumentException("window and maxBatchSize must be positive");
+        }
+        this.studentService = studentService;
+        this.studentsById = studentsById;
+        this.executor = executor;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-lookup-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = DistributionSummary.builder("student.lookup.batch.size")
+                                            .description("Ids read per coalesced student lookup query")
+                                            .register(meterRegistry);
+        this.coalesced = Counter.builder("student.lookup.coalesced")
+                                .description("Student lookups that shared a pending lookup of the same id")
+                                .register(meterRegistry);
+    }
+
+    /**
+     * The student with the given id: from the cache if held there, otherwise once the batch the lookup joined has been
+     * read.
+     */
+    public CompletableFuture<Optional<Student>> getStudentById(long id) {
+        Cache.ValueWrapper cached = studentsById == null ? null : studentsById.get(id);
+        if (cached != null) {
+            // unknown ids are cached as absent
+            return CompletableFuture.completedFuture(Optional.ofNullable((Student) cached.get()));
+        }
+        boolean primaryRequired = ReadYourWrites.isPrimaryRequired();
+        CompletableFuture<Optional<Student>> lookup;
+        Batch full = null;
+        synchronized (lock) {
+            Batch batch = pending(primaryRequired);
+            lookup = batch.lookups.get(id);
+            if (lookup != null) {
+                coalesced.increment();
+                return lookup;
+            }
+            lookup = new CompletableFuture<>();
+            batch.lookups.put(id, lookup);
+            if (batch.lookups.size() >= maxBatchSize) {
+                full = batch;
+                replacePending(primaryRequired);
+            } else if (batch.lookups.size() == 1) {
+                timer.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return lookup;
+    }
+
+    /**
+     * Sends the pending batches and stops the window timer. Lookups made afterwards are not served.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        Batch batch;
+        Batch primaryBatch;
+        synchronized (lock) {
+            batch = pending;
+            primaryBatch = pendingPrimary;
+            replacePending(false);
+            replacePending(true);
+        }
+        for (Batch closed : new Batch[]{batch, primaryBatch}) {
+            if (!closed.lookups.isEmpty()) {
+                send(closed);
+            }
+        }
+    }
+
+    // guarded by lock
+    private Batch pending(boolean primaryRequired) {
+        return primaryRequired ? pendingPrimary : pending;
+    }
+
+    // guarded by lock
+    private void replacePending(boolean primaryRequired) {
+        if (primaryRequired) {
+            pendingPrimary = new Batch(true);
+        } else {
+            pending = new Batch(false);
+        }
+    }
+
+    // a batch that filled up before its window closed has been sent already
+    private void flush(Batch batch) {
+        synchronized (lock) {
+            if (pending(batch.primaryRequired) != batch) {
+                return;
+            }
+            replacePending(batch.primaryRequired);
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        try {
+            executor.execute(ReadYourWrites.decorate(() -> read(batch.lookups), batch.primaryRequired));
+        } catch (RuntimeException e) {
+            batch.lookups.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+
+    private void read(Map<Long, CompletableFuture<Optional<Student>>> batch) {
+        batchSize.record(batch.size());
+        List<Student> students;
+        try {
+            students = studentService.getStudentsByIds(batch.keySet());
+        } catch (RuntimeException | Error e) {
+            log.warn("Failed to read {} coalesced student lookups", batch.size(), e);
+            batch.values().forEach(lookup -> lookup.completeExceptionally(e));
+            return;
+        }
+        for (Student student : students) {
+            batch.get(student.getId()).complete(Optional.of(student));
+        }
+        batch.values().forEach(lookup -> lookup.complete(Optional.empty()));
+    }
+
+    private static final class Batch {
+
+        private final boolean primaryRequired;
+        private final Map<Long, CompletableFuture<Optional<Student>>> lookups = new HashMap<>();
+
+        private Batch(boolean primaryRequired) {
+            this.primaryRequired = primaryRequired;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Tracks requests currently being handled, per method and uri template, as the {@code http.server.requests.active}
+ * long task timer. Its active count is the in-flight gauge; the sample survives async dispatches so a streamed
+ * response stays in flight until it is fully written.
+ */
+public class InFlightRequestInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC_NAME = "http.server.requests.active";
+
+    private static final String SAMPLE_ATTRIBUTE = InFlightRequestInterceptor.class.getName() + ".sample";
+
+    private final MeterRegistry meterRegistry;
+
+    public InFlightRequestInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(SAMPLE_ATTRIBUTE) == null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            LongTaskTimer.Sample sample = LongTaskTimer.builder(METRIC_NAME)
+                                                       .tag("method", request.getMethod())
+                                                       .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                                                       .register(meterRegistry)
+                                                       .start();
+            request.setAttribute(SAMPLE_ATTRIBUTE, sample);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object sample = request.getAttribute(SAMPLE_ATTRIBUTE);
+        if (sample != null) {
+            request.removeAttribute(SAMPLE_ATTRIBUTE);
+            ((LongTaskTimer.Sample) sample).stop();
+        }
+    }
+}
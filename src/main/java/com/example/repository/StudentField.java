@@ -0,0 +1,52 @@
+package com.example.repository;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Student attributes that can be selected with {@code ?fields=}. The JSON name is also the JPQL attribute, so only
+ * these constants ever reach a query string.
+ */
+public enum StudentField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email");
+
+    private final String attribute;
+
+    StudentField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses attribute names, ignoring blanks. The id is always included since it is the keyset cursor.
+     *
+     * @throws IllegalArgumentException for a name that is not a student attribute
+     */
+    public static Set<StudentField> parse(Collection<String> names) {
+        Set<StudentField> fields = EnumSet.of(ID);
+        for (String name : names) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            fields.add(ofAttribute(trimmed));
+        }
+        return fields;
+    }
+
+    private static StudentField ofAttribute(String name) {
+        for (StudentField field : values()) {
+            if (field.attribute.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown student field " + name);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Sparse field selection: only the requested columns are selected, and rows come back as tuples keyed by attribute
+ * name rather than managed entities, so nothing is tracked in the persistence context.
+ */
+public interface StudentFieldsRepository {
+
+    /**
+     * Keyset page of at most {@code limit} rows whose id is greater than {@code id}, in id order.
+     */
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Set<StudentField> fields, long id, int limit);
+
+    /**
+     * Forward-only cursor over the rows whose id is greater than {@code id}, in id order. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    Stream<Map<String, Object>> streamFieldsByIdGreaterThan(Set<StudentField> fields, long id);
+}
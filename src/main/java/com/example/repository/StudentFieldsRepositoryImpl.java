@@ -0,0 +1,54 @@
+package com.example.repository;
+
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class StudentFieldsRepositoryImpl implements StudentFieldsRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Set<StudentField> fields, long id, int limit) {
+        return query(fields, id).setMaxResults(limit)
+                                .getResultList()
+                                .stream()
+                                .map(tuple -> toMap(fields, tuple))
+                                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Map<String, Object>> streamFieldsByIdGreaterThan(Set<StudentField> fields, long id) {
+        return query(fields, id).setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                                .getResultStream()
+                                .map(tuple -> toMap(fields, tuple));
+    }
+
+    private TypedQuery<Tuple> query(Set<StudentField> fields, long id) {
+        String select = fields.stream()
+                              .map(field -> "s." + field.attribute() + " as " + field.attribute())
+                              .collect(Collectors.joining(", "));
+        return entityManager.createQuery("select " + select + " from Student s where s.id > :id order by s.id", Tuple.class)
+                            .setParameter("id", id);
+    }
+
+    private static Map<String, Object> toMap(Set<StudentField> fields, Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (StudentField field : fields) {
+            row.put(field.attribute(), tuple.get(field.attribute()));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.repository;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Summary of a range of the students table. Inserts and deletes change the row count or the sum of the ids (ids are
+ * never reused), updates raise the sum of the row versions. It is not a digest of the rows: a delete and an insert
+ * whose ids happen to sum up like those they replace, which needs at least two of each, leave it unchanged. Use it
+ * as a weak validator only.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class StudentListVersion {
+    private final long count;
+    private final long maxId;
+    private final long idSum;
+    private final long versionSum;
+
+    public StudentListVersion(long count, long maxId, long idSum, long versionSum) {
+        this.count = count;
+        this.maxId = maxId;
+        this.idSum = idSum;
+        this.versionSum = versionSum;
+    }
+}
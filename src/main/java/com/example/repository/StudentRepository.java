@@ -1,12 +1,23 @@
 package com.example.repository;
 
 import com.example.entity.Student;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentFieldsRepository {
 
     Optional<Student> findByEmail(String email);
 
@@ -22,4 +33,53 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query(value = "select * from students where last_name=:lastName and email=:email", nativeQuery = true)
     Student findByJpqlNativeQueryNamedParams(String lastName, String email);
 
+    /**
+     * Single statement update that bumps the version, returns the number of rows changed (0 when no student has the
+     * given id).
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update Student s set s.firstName=:firstName, s.lastName=:lastName, s.email=:email, s.version=s.version+1 where s.id=:id")
+    int updateById(long id, String firstName, String lastName, String email);
+
+    /**
+     * Like {@link #updateById} but only while the row is still at {@code version}; returns 0 when the student is
+     * missing or has been changed since.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update Student s set s.firstName=:firstName, s.lastName=:lastName, s.email=:email, s.version=s.version+1 where s.id=:id and s.version=:version")
+    int updateByIdAndVersion(long id, long version, String firstName, String lastName, String email);
+
+    /**
+     * Single statement delete, returns the number of rows removed (0 when no student has the given id).
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from Student s where s.id=?1")
+    int deleteStudentById(long id);
+
+    @Query(value = "select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Summary of the students whose id is greater than {@code id} that changes when one of them is inserted, updated
+     * or deleted, see {@link StudentListVersion} for when it does not.
+     */
+    @Query(value = "select new com.example.repository.StudentListVersion(count(s), coalesce(max(s.id), 0L), coalesce(sum(s.id), 0L), coalesce(sum(s.version), 0L)) from Student s where s.id > :id")
+    StudentListVersion findListVersionByIdGreaterThan(long id);
+
+    /**
+     * Keyset page: the next {@code pageable.getPageSize()} students whose id is greater than {@code id}.
+     * Walks the primary key index, so the cost does not grow with the page number like an offset query does.
+     */
+    List<Student> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /**
+     * Forward-only cursor over the students whose id is greater than {@code id}, fetched from the driver
+     * in bounded chunks. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(value = {@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    Stream<Student> streamByIdGreaterThanOrderByIdAsc(long id);
+
 }
@@ -0,0 +1,104 @@
+package com.example.repository.reactive;
+
+import com.example.entity.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+
+/**
+ * Non-blocking counterpart of {@link com.example.repository.StudentRepository} over R2DBC.
+ * <p>
+ * A class on top of the entity template rather than a Spring Data interface: {@link Student} is a JPA entity, and
+ * with both JPA and R2DBC present Spring Data would hand any repository interface for it to JPA.
+ */
+@Repository
+@ConditionalOnProperty(name = "student.reactive.enabled", havingValue = "true")
+public class ReactiveStudentRepository {
+
+    private final R2dbcEntityTemplate reactiveStudentTemplate;
+
+    @Autowired
+    public ReactiveStudentRepository(@Qualifier("reactiveStudentTemplate") R2dbcEntityTemplate reactiveStudentTemplate) {
+        this.reactiveStudentTemplate = reactiveStudentTemplate;
+    }
+
+    public Mono<Student> findById(long id) {
+        return reactiveStudentTemplate.selectOne(Query.query(where("id").is(id)), Student.class);
+    }
+
+    public Mono<Student> findByEmail(String email) {
+        return reactiveStudentTemplate.selectOne(Query.query(where("email").is(email)), Student.class);
+    }
+
+    public Flux<Student> findPageAfter(long id, int limit) {
+        return reactiveStudentTemplate.select(Query.query(where("id").greaterThan(id))
+                                                   .sort(Sort.by("id"))
+                                                   .limit(limit), Student.class);
+    }
+
+    public Flux<Student> streamAfter(long id) {
+        return reactiveStudentTemplate.select(Query.query(where("id").greaterThan(id))
+                                                   .sort(Sort.by("id")), Student.class);
+    }
+
+    /**
+     * Inserts a student whose id has already been assigned.
+     */
+    public Mono<Student> insert(Student student) {
+        return reactiveStudentTemplate.insert(student);
+    }
+
+    public Mono<Long> nextSequenceValue() {
+        return reactiveStudentTemplate.getDatabaseClient()
+                                      .sql("select next value for " + Student.ID_SEQUENCE)
+                                      .map(row -> row.get(0, Long.class))
+                                      .one();
+    }
+
+    /**
+     * Bumps the version like the JPA update does, so ETags stay valid across both stacks.
+     */
+    public Mono<Integer> updateById(long id, String firstName, String lastName, String email) {
+        return reactiveStudentTemplate.getDatabaseClient()
+                                      .sql("update students set first_name = :firstName, last_name = :lastName, email = :email,"
+                                              + " version = version + 1 where id = :id")
+                                      .bind("firstName", firstName)
+                                      .bind("lastName", lastName)
+                                      .bind("email", email)
+                                      .bind("id", id)
+                                      .fetch()
+                                      .rowsUpdated();
+    }
+
+    /**
+     * Like {@link #updateById(long, String, String, String)}, but only while the student is still at {@code version}.
+     */
+    public Mono<Integer> updateByIdAndVersion(long id, long version, String firstName, String lastName, String email) {
+        return reactiveStudentTemplate.getDatabaseClient()
+                                      .sql("update students set first_name = :firstName, last_name = :lastName, email = :email,"
+                                              + " version = version + 1 where id = :id and version = :version")
+                                      .bind("firstName", firstName)
+                                      .bind("lastName", lastName)
+                                      .bind("email", email)
+                                      .bind("id", id)
+                                      .bind("version", version)
+                                      .fetch()
+                                      .rowsUpdated();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return reactiveStudentTemplate.exists(Query.query(where("id").is(id)), Student.class);
+    }
+
+    public Mono<Integer> deleteStudentById(long id) {
+        return reactiveStudentTemplate.delete(Query.query(where("id").is(id)), Student.class);
+    }
+}
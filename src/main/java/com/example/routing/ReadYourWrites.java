@@ -0,0 +1,50 @@
+package com.example.routing;
+
+/**
+ * Whether the work on the current thread must read from the primary instead of a replica: set for requests that
+ * write, and for requests of a client that wrote within the read-your-writes window, see
+ * {@link ReadYourWritesFilter}. Consulted by {@link ReplicaRoutingDataSource}, and carried over to the threads a
+ * request hands its work to by {@link #decorate(Runnable)}.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    static void setPrimaryRequired(boolean primaryRequired) {
+        if (primaryRequired) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    /**
+     * Runs {@code task} with the setting of the submitting thread, and restores the executing thread's own afterwards.
+     * Fits {@link org.springframework.core.task.TaskDecorator}.
+     */
+    public static Runnable decorate(Runnable task) {
+        return decorate(task, isPrimaryRequired());
+    }
+
+    /**
+     * Runs {@code task} with the given setting, and restores the executing thread's own afterwards.
+     */
+    public static Runnable decorate(Runnable task, boolean primaryRequired) {
+        return () -> {
+            boolean previous = isPrimaryRequired();
+            setPrimaryRequired(primaryRequired);
+            try {
+                task.run();
+            } finally {
+                setPrimaryRequired(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.routing;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a client on the primary for {@code window} after it wrote, longer than replicas take to catch up, so it reads
+ * its own writes. The API has no server-side session, so the time of the client's last write travels in the
+ * {@value #LAST_WRITE_COOKIE} cookie, set on every write request.
+ * <p>
+ * Write requests read from the primary too, as do reads carrying a last write within {@code window}, either way
+ * round to allow for clocks of different instances. Everything else may read from a replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_COOKIE = "student-last-write";
+
+    private static final String API_PATH = "/api/student";
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    public ReadYourWritesFilter(Duration window) {
+        this(window, System::currentTimeMillis);
+    }
+
+    ReadYourWritesFilter(Duration window, LongSupplier clock) {
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = clock.getAsLong();
+        boolean write = isWrite(request);
+        if (write) {
+            response.addCookie(lastWriteCookie(request, now));
+        }
+        boolean previous = ReadYourWrites.isPrimaryRequired();
+        ReadYourWrites.setPrimaryRequired(write || wroteWithinWindow(request, now));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.setPrimaryRequired(previous);
+        }
+    }
+
+    // the multi-get lookup only reads, whatever its method
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)) {
+            return false;
+        }
+        return !(request.getContextPath() + API_PATH + "/lookup").equals(request.getRequestURI());
+    }
+
+    private boolean wroteWithinWindow(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Math.abs(now - Long.parseLong(cookie.getValue())) < windowMillis;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Cookie lastWriteCookie(HttpServletRequest request, long now) {
+        Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+        cookie.setPath(request.getContextPath() + API_PATH);
+        cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+        cookie.setHttpOnly(true);
+        return cookie;
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.search;
+
+import com.example.entity.Student;
+import com.example.service.StudentChangedEvent;
+import com.example.service.StudentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory name and email search over all students, for autocomplete.
+ * <p>
+ * Every student is indexed under the terms of its first name, last name and email: the words of each, plus the whole
+ * email. A query is split on whitespace and every query token has to match one term of a student, either as a prefix
+ * or, for tokens of three or more characters, within one edit (two from six characters on) of the term or of its
+ * prefix of the same length. Typo candidates are found through a trigram index over the terms, so only terms sharing
+ * enough trigrams with the token are compared. Exact terms rank above prefixes and prefixes above typos.
+ * <p>
+ * The index is loaded from the database before the server accepts requests and then follows the
+ * {@link StudentChangedEvent}s of committed transactions. Writes are serialised; searches read the concurrent maps
+ * without locking and may see a write half applied.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class StudentSearchIndex implements SmartInitializingSingleton {
+
+    // bounds the work per query token, prefixes as short as one letter would otherwise visit every student
+    static final int MAX_CANDIDATES_PER_TOKEN = 10_000;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+
+    private final StudentService studentService;
+    private final Map<Long, Indexed> students = new ConcurrentHashMap<>();
+    // ids per term are kept sorted, so the lowest ids of a term come without sorting
+    private final ConcurrentSkipListMap<String, NavigableSet<Long>> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StudentSearchIndex(StudentService studentService) {
+        this.studentService = studentService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        studentService.streamStudentsAfter(0, this::put);
+        log.info("Indexed {} students for search in {} ms", students.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.getType() == StudentChangedEvent.Type.DELETED) {
+            remove(event.getId());
+        } else {
+            put(event.getStudent());
+        }
+    }
+
+    public synchronized void put(Student student) {
+        Student copy = new Student(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail(),
+                student.getVersion());
+        Indexed indexed = new Indexed(copy, termsOf(copy));
+        Indexed previous = students.put(copy.getId(), indexed);
+        if (previous != null) {
+            previous.terms.forEach(term -> removeTerm(term, copy.getId()));
+        }
+        indexed.terms.forEach(term -> addTerm(term, copy.getId()));
+    }
+
+    public synchronized void remove(long id) {
+        Indexed previous = students.remove(id);
+        if (previous != null) {
+            previous.terms.forEach(term -> removeTerm(term, id));
+        }
+    }
+
+    public int size() {
+        return students.size();
+    }
+
+    /**
+     * Best matches first, ties broken by id. A blank query matches nothing.
+     */
+    public List<Student> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : WHITESPACE.split(normalize(query))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        if (tokens.size() == 1) {
+            return firstMatches(tokens.get(0), limit);
+        }
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // the longest word is usually the most selective, the others are checked against the terms of its candidates
+        tokens.sort(Comparator.comparingInt(String::length).reversed());
+        Map<Long, Integer> scores = match(tokens.get(0));
+        List<String> others = tokens.subList(1, tokens.size());
+        List<Set<String>> othersFuzzyTerms = new ArrayList<>(others.size());
+        for (String other : others) {
+            othersFuzzyTerms.add(other.length() >= MIN_FUZZY_LENGTH ? new HashSet<>(fuzzyTerms(other)) : Collections.emptySet());
+        }
+        for (Iterator<Map.Entry<Long, Integer>> candidates = scores.entrySet().iterator(); candidates.hasNext(); ) {
+            Map.Entry<Long, Integer> candidate = candidates.next();
+            Indexed indexed = students.get(candidate.getKey());
+            Set<String> studentTerms = indexed == null ? Collections.emptySet() : indexed.terms;
+            int score = candidate.getValue();
+            for (int i = 0; i < others.size(); i++) {
+                int otherScore = score(others.get(i), othersFuzzyTerms.get(i), studentTerms);
+                if (otherScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += otherScore;
+            }
+            if (score == 0) {
+                candidates.remove();
+            } else {
+                candidate.setValue(score);
+            }
+        }
+        // keeps the best limit candidates instead of sorting all of them, the worst of the kept ones on top
+        Comparator<Map.Entry<Long, Integer>> better = Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                                                               .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Integer>> best = new PriorityQueue<>(limit + 1, better.reversed());
+        for (Map.Entry<Long, Integer> candidate : scores.entrySet()) {
+            best.add(candidate);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        return best.stream()
+                   .sorted(better)
+                   .map(entry -> students.get(entry.getKey()))
+                   .filter(indexed -> indexed != null)
+                   .map(indexed -> indexed.student)
+                   .collect(Collectors.toList());
+    }
+
+    /**
+     * Single word queries, the usual autocomplete case. The best matches are the lowest ids of the exact term, then of
+     * the prefixed terms, then of the typo terms, which the sorted id sets give without scoring every candidate.
+     */
+    private List<Student> firstMatches(String token, int limit) {
+        Set<Long> found = new LinkedHashSet<>();
+        NavigableSet<Long> exact = terms.get(token);
+        if (exact != null) {
+            addLowestIds(Collections.singletonList(exact), limit, found);
+        }
+        if (found.size() < limit) {
+            addLowestIds(terms.subMap(token, false, token + Character.MAX_VALUE, false).values(), limit, found);
+        }
+        if (found.size() < limit && token.length() >= MIN_FUZZY_LENGTH) {
+            List<NavigableSet<Long>> typos = new ArrayList<>();
+            for (String term : fuzzyTerms(token)) {
+                NavigableSet<Long> ids = terms.get(term);
+                if (ids != null) {
+                    typos.add(ids);
+                }
+            }
+            addLowestIds(typos, limit, found);
+        }
+        return found.stream()
+                    .map(students::get)
+                    .filter(indexed -> indexed != null)
+                    .map(indexed -> indexed.student)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+    }
+
+    // adds the lowest ids of the sets that were not found yet, until limit ids were found
+    private static void addLowestIds(Iterable<NavigableSet<Long>> idSets, int limit, Set<Long> found) {
+        int wanted = limit - found.size();
+        if (wanted <= 0) {
+            return;
+        }
+        TreeSet<Long> lowest = new TreeSet<>();
+        int visited = 0;
+        for (NavigableSet<Long> ids : idSets) {
+            for (Long id : ids) {
+                if (++visited > MAX_CANDIDATES_PER_TOKEN || lowest.size() == wanted && id > lowest.last()) {
+                    break;
+                }
+                if (!found.contains(id) && lowest.add(id) && lowest.size() > wanted) {
+                    lowest.pollLast();
+                }
+            }
+            if (visited > MAX_CANDIDATES_PER_TOKEN) {
+                break;
+            }
+        }
+        found.addAll(lowest);
+    }
+
+    private Map<Long, Integer> match(String token) {
+        Map<Long, Integer> scores = new HashMap<>();
+        NavigableMap<String, NavigableSet<Long>> prefixed = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+        for (Map.Entry<String, NavigableSet<Long>> term : prefixed.entrySet()) {
+            int score = term.getKey().equals(token) ? EXACT : PREFIX;
+            if (addScores(scores, term.getValue(), score)) {
+                return scores;
+            }
+        }
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            for (String term : fuzzyTerms(token)) {
+                Set<Long> ids = terms.get(term);
+                if (ids != null && addScores(scores, ids, FUZZY)) {
+                    return scores;
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static int score(String token, Set<String> fuzzyTerms, Set<String> studentTerms) {
+        int best = 0;
+        for (String term : studentTerms) {
+            if (term.equals(token)) {
+                return EXACT;
+            } else if (term.startsWith(token)) {
+                best = PREFIX;
+            } else if (best == 0 && fuzzyTerms.contains(term)) {
+                best = FUZZY;
+            }
+        }
+        return best;
+    }
+
+    // terms within the allowed edits of the token that do not already start with it
+    private List<String> fuzzyTerms(String token) {
+        int maxEdits = token.length() >= 6 ? 2 : 1;
+        List<String> fuzzyTerms = new ArrayList<>();
+        for (String term : fuzzyCandidates(token, maxEdits)) {
+            if (!term.startsWith(token) && withinEdits(token, term, maxEdits)) {
+                fuzzyTerms.add(term);
+            }
+        }
+        return fuzzyTerms;
+    }
+
+    // true once the candidate bound is reached
+    private static boolean addScores(Map<Long, Integer> scores, Set<Long> ids, int score) {
+        for (Long id : ids) {
+            scores.merge(id, score, Math::max);
+            if (scores.size() >= MAX_CANDIDATES_PER_TOKEN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Terms sharing enough trigrams with the token to be within {@code maxEdits} of it: one edit, a swap included,
+     * changes at most four of the token's trigrams.
+     */
+    private Set<String> fuzzyCandidates(String token, int maxEdits) {
+        List<String> tokenTrigrams = trigramsOf(token);
+        int minShared = Math.max(1, tokenTrigrams.size() - 4 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : new LinkedHashSet<>(tokenTrigrams)) {
+            Set<String> withTrigram = trigrams.get(trigram);
+            if (withTrigram != null) {
+                withTrigram.forEach(term -> shared.merge(term, 1, Integer::sum));
+            }
+        }
+        return shared.entrySet().stream()
+                     .filter(entry -> entry.getValue() >= minShared)
+                     .map(Map.Entry::getKey)
+                     .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static boolean withinEdits(String token, String term, int maxEdits) {
+        if (editDistance(token, term, maxEdits) <= maxEdits) {
+            return true;
+        }
+        return term.length() > token.length()
+                && editDistance(token, term.substring(0, token.length()), maxEdits) <= maxEdits;
+    }
+
+    /**
+     * Edit distance counting insertions, deletions, substitutions and swaps of adjacent letters (optimal string
+     * alignment), or {@code maxEdits + 1} as soon as it is known to be larger.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private void addTerm(String term, long id) {
+        terms.compute(term, (key, ids) -> {
+            if (ids == null) {
+                ids = new ConcurrentSkipListSet<>();
+                for (String trigram : trigramsOf(term)) {
+                    trigrams.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(term);
+                }
+            }
+            ids.add(id);
+            return ids;
+        });
+    }
+
+    private void removeTerm(String term, long id) {
+        terms.computeIfPresent(term, (key, ids) -> {
+            ids.remove(id);
+            if (!ids.isEmpty()) {
+                return ids;
+            }
+            for (String trigram : trigramsOf(term)) {
+                trigrams.computeIfPresent(trigram, (t, withTrigram) -> {
+                    withTrigram.remove(term);
+                    return withTrigram.isEmpty() ? null : withTrigram;
+                });
+            }
+            return null;
+        });
+    }
+
+    private static final class Indexed {
+
+        private final Student student;
+        private final Set<String> terms;
+
+        Indexed(Student student, Set<String> terms) {
+            this.student = student;
+            this.terms = terms;
+        }
+    }
+
+    private static Set<String> termsOf(Student student) {
+        Set<String> studentTerms = new LinkedHashSet<>();
+        addWords(studentTerms, student.getFirstName());
+        addWords(studentTerms, student.getLastName());
+        if (student.getEmail() != null) {
+            String email = normalize(student.getEmail());
+            studentTerms.add(email);
+            addWords(studentTerms, email);
+        }
+        return studentTerms;
+    }
+
+    private static void addWords(Set<String> studentTerms, String value) {
+        if (value == null) {
+            return;
+        }
+        for (String word : NON_WORD.split(normalize(value))) {
+            if (!word.isEmpty()) {
+                studentTerms.add(word);
+            }
+        }
+    }
+
+    // the leading marker makes the first letters count, most typos are not in them
+    private static List<String> trigramsOf(String term) {
+        String marked = "^" + term;
+        List<String> termTrigrams = new ArrayList<>(marked.length());
+        for (int i = 0; i + 3 <= marked.length(); i++) {
+            termTrigrams.add(marked.substring(i, i + 3));
+        }
+        return termTrigrams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveStudentService {
+    Mono<Student> saveStudent(Student student);
+
+    /**
+     * Inserts all students in one transaction; a failing insert rolls back the ones before it.
+     */
+    Flux<Student> saveStudents(List<Student> students);
+
+    Flux<Student> getStudentsAfter(long afterId, int limit);
+
+    Flux<Student> streamStudentsAfter(long afterId);
+
+    Mono<Student> getStudentById(long id);
+
+    Mono<Student> getStudentByEmail(String email);
+
+    Mono<Student> updateStudent(Student student);
+
+    /**
+     * Like {@link #updateStudent(Student)}, but fails with
+     * {@link com.example.exception.ResourceVersionMismatchException} unless the student is still at {@code expectedVersion}.
+     */
+    Mono<Student> updateStudent(Student student, long expectedVersion);
+
+    Mono<Void> deleteStudentById(long id);
+}
@@ -0,0 +1,42 @@
+package com.example.service;
+
+import com.example.entity.Student;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@link StudentService} for every student it writes. Listeners that keep derived state should use
+ * {@code @TransactionalEventListener} so they only see changes that were committed.
+ */
+@Getter
+@ToString
+public class StudentChangedEvent {
+
+    // journaled by ordinal, see StudentChangeJournal; add new types at the end
+    public enum Type {
+        SAVED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final long id;
+    // the student as written, null for deletes
+    private final Student student;
+
+    private StudentChangedEvent(Type type, long id, Student student) {
+        this.type = type;
+        this.id = id;
+        this.student = student;
+    }
+
+    public static StudentChangedEvent saved(Student student) {
+        return new StudentChangedEvent(Type.SAVED, student.getId(), student);
+    }
+
+    public static StudentChangedEvent updated(Student student) {
+        return new StudentChangedEvent(Type.UPDATED, student.getId(), student);
+    }
+
+    public static StudentChangedEvent deleted(long id) {
+        return new StudentChangedEvent(Type.DELETED, id, null);
+    }
+}
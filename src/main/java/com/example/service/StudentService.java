@@ -1,17 +1,56 @@
 package com.example.service;
 
 import com.example.entity.Student;
+import com.example.repository.StudentField;
+import com.example.repository.StudentListVersion;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface StudentService {
     Student saveStudent(Student student);
 
+    List<Student> saveStudents(List<Student> students);
+
     List<Student> getAllStudents();
+
+    List<Student> getStudentsAfter(long afterId, int limit);
+
+    void streamStudentsAfter(long afterId, Consumer<Student> action);
+
+    List<Map<String, Object>> getStudentFieldsAfter(Set<StudentField> fields, long afterId, int limit);
+
+    void streamStudentFieldsAfter(Set<StudentField> fields, long afterId, Consumer<Map<String, Object>> action);
+
+    StudentListVersion getStudentsVersion(long afterId);
+
     Optional<Student> getStudentById(long id);
 
+    /**
+     * The students with the given ids in the order of {@code ids}, unknown and repeated ids left out. Ids cached by
+     * {@link #getStudentById(long)} are served from the cache, the rest are read with a single query.
+     */
+    List<Student> getStudentsByIds(Collection<Long> ids);
+
+    Optional<Student> getStudentByEmail(String email);
+
     Student updateStudent(Student student);
 
+    /**
+     * Applies all updates in one transaction; the caches are only changed once it committed.
+     */
+    List<Student> updateStudents(List<Student> students);
+
+    /**
+     * Updates the student only if it is still at {@code expectedVersion}.
+     *
+     * @throws com.example.exception.ResourceVersionMismatchException if it has been changed since
+     */
+    Student updateStudent(Student student, long expectedVersion);
+
     void deleteStudentById(long id);
 }
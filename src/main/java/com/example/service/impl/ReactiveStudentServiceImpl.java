@@ -0,0 +1,134 @@
+package com.example.service.impl;
+
+import com.example.entity.Student;
+import com.example.config.ReactiveConfig;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ResourceVersionMismatchException;
+import com.example.repository.reactive.ReactiveStudentRepository;
+import com.example.service.ReactiveStudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(name = "student.reactive.enabled", havingValue = "true")
+public class ReactiveStudentServiceImpl implements ReactiveStudentService {
+
+    private final ReactiveStudentRepository reactiveStudentRepository;
+    private final TransactionalOperator reactiveStudentTransaction;
+
+    // ids handed out from the current sequence block, [nextId, blockEnd)
+    private final Object idBlockLock = new Object();
+    private long nextId;
+    private long blockEnd;
+
+    @Autowired
+    public ReactiveStudentServiceImpl(ReactiveStudentRepository reactiveStudentRepository,
+                                      @Qualifier(ReactiveConfig.REACTIVE_STUDENT_TRANSACTION) TransactionalOperator reactiveStudentTransaction) {
+        this.reactiveStudentRepository = reactiveStudentRepository;
+        this.reactiveStudentTransaction = reactiveStudentTransaction;
+    }
+
+    @Override
+    public Mono<Student> saveStudent(Student student) {
+        return nextId().flatMap(id -> {
+                           student.setId(id);
+                           return reactiveStudentRepository.insert(student);
+                       })
+                       .onErrorMap(DataIntegrityViolationException.class,
+                               e -> StudentServiceImpl.translateDuplicateEmail(e, student.getEmail()));
+    }
+
+    @Override
+    public Flux<Student> saveStudents(List<Student> students) {
+        return Flux.fromIterable(students)
+                   .concatMap(this::saveStudent)
+                   .as(reactiveStudentTransaction::transactional);
+    }
+
+    @Override
+    public Flux<Student> getStudentsAfter(long afterId, int limit) {
+        return reactiveStudentRepository.findPageAfter(afterId, limit);
+    }
+
+    @Override
+    public Flux<Student> streamStudentsAfter(long afterId) {
+        return reactiveStudentRepository.streamAfter(afterId);
+    }
+
+    @Override
+    public Mono<Student> getStudentById(long id) {
+        return reactiveStudentRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Student> getStudentByEmail(String email) {
+        return reactiveStudentRepository.findByEmail(email);
+    }
+
+    @Override
+    public Mono<Student> updateStudent(Student student) {
+        return reactiveStudentRepository.updateById(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail())
+                                        .onErrorMap(DataIntegrityViolationException.class,
+                                                e -> StudentServiceImpl.translateDuplicateEmail(e, student.getEmail()))
+                                        .flatMap(updatedRows -> updatedRows == 0
+                                                ? Mono.error(new ResourceNotFoundException("No Student found with Id " + student.getId()))
+                                                : reactiveStudentRepository.findById(student.getId()));
+    }
+
+    @Override
+    public Mono<Student> updateStudent(Student student, long expectedVersion) {
+        return reactiveStudentRepository.updateByIdAndVersion(student.getId(), expectedVersion,
+                                                student.getFirstName(), student.getLastName(), student.getEmail())
+                                        .onErrorMap(DataIntegrityViolationException.class,
+                                                e -> StudentServiceImpl.translateDuplicateEmail(e, student.getEmail()))
+                                        .flatMap(updatedRows -> updatedRows > 0
+                                                ? Mono.fromSupplier(() -> {
+                                                    student.setVersion(expectedVersion + 1);
+                                                    return student;
+                                                })
+                                                : reactiveStudentRepository.existsById(student.getId())
+                                                                           .flatMap(exists -> Mono.error(exists
+                                                                                   ? new ResourceVersionMismatchException("Student with Id " + student.getId()
+                                                                                           + " is no longer at version " + expectedVersion)
+                                                                                   : new ResourceNotFoundException("No Student found with Id " + student.getId()))));
+    }
+
+    @Override
+    public Mono<Void> deleteStudentById(long id) {
+        return reactiveStudentRepository.deleteStudentById(id)
+                                        .flatMap(deletedRows -> deletedRows == 0
+                                                ? Mono.error(new ResourceNotFoundException("No Student found with Id " + id))
+                                                : Mono.empty());
+    }
+
+    /**
+     * Allocates ids the way Hibernate's pooled optimizer does for {@link Student}, so rows inserted here never collide
+     * with rows inserted through JPA: a sequence value {@code v} reserves the block
+     * {@code [v - ID_ALLOCATION_SIZE + 1, v]}.
+     */
+    private Mono<Long> nextId() {
+        synchronized (idBlockLock) {
+            if (nextId < blockEnd) {
+                return Mono.just(nextId++);
+            }
+        }
+        return reactiveStudentRepository.nextSequenceValue()
+                                        .map(this::claimBlock);
+    }
+
+    private long claimBlock(long sequenceValue) {
+        synchronized (idBlockLock) {
+            nextId = Math.max(1, sequenceValue - Student.ID_ALLOCATION_SIZE + 1);
+            blockEnd = sequenceValue + 1;
+            return nextId++;
+        }
+    }
+}
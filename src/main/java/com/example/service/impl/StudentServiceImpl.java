@@ -1,63 +1,357 @@
 package com.example.service.impl;
 
+import com.example.config.CacheConfig;
 import com.example.entity.Student;
 import com.example.exception.ResourceAlreadyExistsException;
 import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ResourceVersionMismatchException;
+import com.example.repository.StudentField;
+import com.example.repository.StudentListVersion;
 import com.example.repository.StudentRepository;
+import com.example.routing.ReadYourWrites;
+import com.example.service.StudentChangedEvent;
 import com.example.service.StudentService;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-@Slf4j
 public class StudentServiceImpl implements StudentService {
 
+    static final int BULK_CHUNK_SIZE = 50;
+
     private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+
+    // read-only transactions may run on a replica that has not caught up, see ReplicaRoutingConfig
+    @Value("${student.replicas.enabled:false}")
+    private boolean replicaReads;
 
     @Autowired
-    public StudentServiceImpl(StudentRepository studentRepository) {
+    public StudentServiceImpl(StudentRepository studentRepository, EntityManager entityManager,
+                              ApplicationEventPublisher eventPublisher, CacheManager cacheManager) {
         this.studentRepository = studentRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
     }
 
     @Override
+    @Caching(put = @CachePut(cacheNames = CacheConfig.STUDENTS_BY_ID, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, key = "#student.email", condition = "#student.email != null"))
+    @Transactional
     public Student saveStudent(Student student) {
-        Optional<Student> optionalStudent = studentRepository.findByEmail(student.getEmail());
-        if (optionalStudent.isPresent()) {
-            throw new ResourceAlreadyExistsException("Student with given email already exists " + student.getEmail());
+        Student savedStudent;
+        try {
+            savedStudent = studentRepository.saveAndFlush(student);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, student.getEmail());
+        }
+        eventPublisher.publishEvent(StudentChangedEvent.saved(savedStudent));
+        return savedStudent;
+    }
+
+    /**
+     * Inserts the students in chunks of {@link #BULK_CHUNK_SIZE}: one set-based email lookup per chunk, then a
+     * single JDBC batch for its inserts. The persistence context is flushed and cleared after every chunk. Once
+     * committed, each saved student is put in the by-id cache and its email evicted, as {@link #saveStudent(Student)}
+     * does, so the rest of both caches survives bulk and write-behind inserts.
+     */
+    @Override
+    @Transactional
+    public List<Student> saveStudents(List<Student> students) {
+        List<Student> savedStudents = new ArrayList<>(students.size());
+        for (int from = 0; from < students.size(); from += BULK_CHUNK_SIZE) {
+            List<Student> chunk = students.subList(from, Math.min(from + BULK_CHUNK_SIZE, students.size()));
+            checkEmailsNotTaken(chunk);
+            List<Student> savedChunk;
+            try {
+                savedChunk = studentRepository.saveAll(chunk);
+                studentRepository.flush();
+            } catch (DataIntegrityViolationException e) {
+                throw translateDuplicateEmail(e, null);
+            }
+            entityManager.clear();
+            savedChunk.forEach(savedStudent -> eventPublisher.publishEvent(StudentChangedEvent.saved(savedStudent)));
+            savedStudents.addAll(savedChunk);
+        }
+        cacheAfterCommit(savedStudents);
+        return savedStudents;
+    }
+
+    // the cache annotations cannot put a collection entry by entry; like theirs, the changes wait for the commit
+    private void cacheAfterCommit(List<Student> savedStudents) {
+        Cache byId = cacheManager.getCache(CacheConfig.STUDENTS_BY_ID);
+        Cache byEmail = cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL);
+        afterCommit(() -> {
+            for (Student savedStudent : savedStudents) {
+                if (byId != null) {
+                    byId.put(savedStudent.getId(), savedStudent);
+                }
+                if (byEmail != null && savedStudent.getEmail() != null) {
+                    byEmail.evict(savedStudent.getEmail());
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable cache) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.run();
+            }
+        });
+    }
+
+    private void checkEmailsNotTaken(List<Student> chunk) {
+        Set<String> emails = new HashSet<>();
+        for (Student student : chunk) {
+            if (student.getEmail() != null && !emails.add(student.getEmail())) {
+                throw new ResourceAlreadyExistsException("Student with given email already exists " + student.getEmail());
+            }
+        }
+        if (emails.isEmpty()) {
+            return;
+        }
+        List<String> existingEmails = studentRepository.findExistingEmails(emails);
+        if (!existingEmails.isEmpty()) {
+            throw new ResourceAlreadyExistsException("Student with given email already exists " + existingEmails.get(0));
         }
-        return studentRepository.save(student);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
-        log.info("Get All Students");
         return studentRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Student> getStudentsAfter(long afterId, int limit) {
+        return studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStudentsAfter(long afterId, Consumer<Student> action) {
+        try (Stream<Student> students = studentRepository.streamByIdGreaterThanOrderByIdAsc(afterId)) {
+            students.forEach(student -> {
+                action.accept(student);
+                // detach once written so the persistence context does not grow with the table
+                entityManager.detach(student);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentFieldsAfter(Set<StudentField> fields, long afterId, int limit) {
+        return studentRepository.findFieldsByIdGreaterThan(fields, afterId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamStudentFieldsAfter(Set<StudentField> fields, long afterId, Consumer<Map<String, Object>> action) {
+        try (Stream<Map<String, Object>> rows = studentRepository.streamFieldsByIdGreaterThan(fields, afterId)) {
+            rows.forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StudentListVersion getStudentsVersion(long afterId) {
+        return studentRepository.findListVersionByIdGreaterThan(afterId);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_BY_ID, unless = "#root.target.readsFromReplica()")
+    @Transactional(readOnly = true)
     public Optional<Student> getStudentById(long id) {
         return studentRepository.findById(id);
     }
 
+    /**
+     * Reads through the by-id cache like {@link #getStudentById(long)}, entry by entry, since the cache annotations
+     * cannot look up a collection of keys. Not transactional, so a batch of cache hits never borrows a connection;
+     * the misses are one {@code findAllById} query, whose IN list is padded to a power of two so only a handful of
+     * statements are ever prepared for it.
+     */
     @Override
+    public List<Student> getStudentsByIds(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.STUDENTS_BY_ID);
+        Map<Long, Student> found = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Cache.ValueWrapper cached = cache == null ? null : cache.get(id);
+            if (cached == null) {
+                missing.add(id);
+            } else if (cached.get() != null) {
+                found.put(id, (Student) cached.get());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Student student : studentRepository.findAllById(missing)) {
+                found.put(student.getId(), student);
+            }
+            if (cache != null && !readsFromReplica()) {
+                // unknown ids are cached as absent, as getStudentById does with an empty Optional
+                missing.forEach(id -> cache.put(id, found.get(id)));
+            }
+        }
+        List<Student> students = new ArrayList<>(found.size());
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Student student = found.get(id);
+            if (student != null) {
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, condition = "#email != null", unless = "#root.target.readsFromReplica()")
+    @Transactional(readOnly = true)
+    public Optional<Student> getStudentByEmail(String email) {
+        return studentRepository.findByEmail(email);
+    }
+
+    // the previous email is unknown here, so the whole email cache is dropped rather than a single key
+    @Override
+    @Caching(put = @CachePut(cacheNames = CacheConfig.STUDENTS_BY_ID, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, allEntries = true))
+    @Transactional
     public Student updateStudent(Student student) {
-        Optional<Student> optionalStudent = studentRepository.findById(student.getId());
-        if (!optionalStudent.isPresent()) {
+        return update(student);
+    }
+
+    /**
+     * Once committed, each updated student is put in the by-id cache and the email cache is cleared once for the whole
+     * batch. Nested in a caller's transaction, the cache annotations of {@link #updateStudent(Student)} would change
+     * the caches per update, before the commit and even if it is rolled back.
+     */
+    @Override
+    @Transactional
+    public List<Student> updateStudents(List<Student> students) {
+        List<Student> updatedStudents = new ArrayList<>(students.size());
+        for (Student student : students) {
+            updatedStudents.add(update(student));
+        }
+        afterCommit(() -> {
+            Cache byId = cacheManager.getCache(CacheConfig.STUDENTS_BY_ID);
+            Cache byEmail = cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL);
+            if (byId != null) {
+                updatedStudents.forEach(updatedStudent -> byId.put(updatedStudent.getId(), updatedStudent));
+            }
+            if (byEmail != null) {
+                byEmail.clear();
+            }
+        });
+        return updatedStudents;
+    }
+
+    private Student update(Student student) {
+        int updatedRows;
+        try {
+            updatedRows = studentRepository.updateById(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, student.getEmail());
+        }
+        if (updatedRows == 0) {
             throw new ResourceNotFoundException("No Student found with Id " + student.getId());
         }
-        return studentRepository.save(student);
+        // the new version is only known to the database
+        Student updatedStudent = studentRepository.findById(student.getId())
+                                                  .orElseThrow(() -> new ResourceNotFoundException("No Student found with Id " + student.getId()));
+        eventPublisher.publishEvent(StudentChangedEvent.updated(updatedStudent));
+        return updatedStudent;
+    }
+
+    @Override
+    @Caching(put = @CachePut(cacheNames = CacheConfig.STUDENTS_BY_ID, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, allEntries = true))
+    @Transactional
+    public Student updateStudent(Student student, long expectedVersion) {
+        int updatedRows;
+        try {
+            updatedRows = studentRepository.updateByIdAndVersion(student.getId(), expectedVersion,
+                    student.getFirstName(), student.getLastName(), student.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, student.getEmail());
+        }
+        if (updatedRows == 0) {
+            if (!studentRepository.existsById(student.getId())) {
+                throw new ResourceNotFoundException("No Student found with Id " + student.getId());
+            }
+            throw new ResourceVersionMismatchException("Student with Id " + student.getId() + " is no longer at version " + expectedVersion);
+        }
+        student.setVersion(expectedVersion + 1);
+        eventPublisher.publishEvent(StudentChangedEvent.updated(student));
+        return student;
     }
 
     @Override
+    @Caching(evict = {@CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_ID),
+            @CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, allEntries = true)})
+    @Transactional
     public void deleteStudentById(long id) {
-        Optional<Student> optionalStudent = studentRepository.findById(id);
-        if (!optionalStudent.isPresent()) {
+        if (studentRepository.deleteStudentById(id) == 0) {
             throw new ResourceNotFoundException("No Student found with Id " + id);
         }
-        studentRepository.deleteById(id);
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(id));
+    }
+
+    /**
+     * Whether a read-only transaction started now reads from a replica. What a lagging replica returns must not be
+     * cached for every client, e.g. a student deleted on the primary, so the caches are only filled from the primary
+     * and by writes; their entries are then as current as the primary's rows.
+     */
+    public boolean readsFromReplica() {
+        return replicaReads && !ReadYourWrites.isPrimaryRequired();
+    }
+
+    /**
+     * The unique index on email is what guards against duplicates, so a violation of it is reported as
+     * {@link ResourceAlreadyExistsException}; any other integrity violation is passed through unchanged. Also used by
+     * {@link ReactiveStudentServiceImpl}, whose writes hit the same index.
+     */
+    static RuntimeException translateDuplicateEmail(DataIntegrityViolationException e, String email) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.toLowerCase(Locale.ROOT).contains(Student.EMAIL_UNIQUE_CONSTRAINT)) {
+            return new ResourceAlreadyExistsException("Student with given email already exists" + (email == null ? "" : " " + email), e);
+        }
+        return e;
     }
 }
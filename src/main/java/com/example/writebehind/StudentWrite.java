@@ -0,0 +1,56 @@
+package com.example.writebehind;
+
+import com.example.entity.Student;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A create or update accepted by {@link StudentWriteQueue}, and its outcome once the queue applied it. Clients poll
+ * it by {@link #getTrackingId()}.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudentWrite {
+
+    public enum Type {
+        CREATE, UPDATE
+    }
+
+    public enum State {
+        PENDING, COMPLETED, FAILED
+    }
+
+    @ToString.Include
+    private final String trackingId;
+    @ToString.Include
+    private final Type type;
+    @JsonIgnore
+    private final Student student;
+    @ToString.Include
+    private volatile State state = State.PENDING;
+    // known up front for updates, assigned when applied for creates
+    private volatile Long studentId;
+    private volatile Long version;
+    private volatile String error;
+
+    public StudentWrite(String trackingId, Type type, Student student) {
+        this.trackingId = trackingId;
+        this.type = type;
+        this.student = student;
+        this.studentId = type == Type.UPDATE ? student.getId() : null;
+    }
+
+    void complete(Student written) {
+        studentId = written.getId();
+        version = written.getVersion();
+        state = State.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        state = State.FAILED;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.writebehind;
+
+import com.example.entity.Student;
+import com.example.exception.ResourceAlreadyExistsException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.service.StudentService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind for student creates and updates. Writes are acknowledged once they are in a bounded queue, and a
+ * single worker applies them in batches of up to {@code batchSize}. The creates of a batch go through
+ * {@link StudentService#saveStudents(List)}, so they are inserted as JDBC batches in one transaction. Updates to the
+ * same student are coalesced so only the last one is applied, and all updates of a batch go
+ * through {@link StudentService#updateStudents(List)} in one transaction. If a
+ * batch fails, its writes are retried one by one so that only the offending ones are marked failed.
+ * <p>
+ * A full queue rejects new writes with {@link TaskRejectedException}, which the API answers with 503. On shutdown
+ * the queue stops accepting writes and the worker drains what is left, for at most {@code shutdownTimeout}. It
+ * stops after the web server and before the DataSource is closed. Outcomes stay queryable for
+ * {@code statusRetention} after they were submitted.
+ */
+@Slf4j
+public class StudentWriteQueue implements SmartLifecycle {
+
+    // lower than the web server's phases, so the server stops taking requests before the queue drains
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+    private static final long POLL_MILLIS = 100;
+
+    private final StudentService studentService;
+    private final BlockingQueue<StudentWrite> queue;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final Cache<String, StudentWrite> writes;
+    // submitters hold the read lock, so no write is queued after stop() has closed the queue
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    private volatile boolean accepting;
+    private Thread worker;
+
+    public StudentWriteQueue(StudentService studentService, int capacity, int batchSize, Duration shutdownTimeout, Duration statusRetention) {
+        this.studentService = studentService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.writes = Caffeine.newBuilder().expireAfterWrite(statusRetention).build();
+    }
+
+    public StudentWrite create(Student student) {
+        return submit(new StudentWrite(UUID.randomUUID().toString(), StudentWrite.Type.CREATE, student));
+    }
+
+    public StudentWrite update(Student student) {
+        return submit(new StudentWrite(UUID.randomUUID().toString(), StudentWrite.Type.UPDATE, student));
+    }
+
+    public Optional<StudentWrite> getWrite(String trackingId) {
+        return Optional.ofNullable(writes.getIfPresent(trackingId));
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private StudentWrite submit(StudentWrite write) {
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new TaskRejectedException("Student write queue is not accepting writes");
+            }
+            writes.put(write.getTrackingId(), write);
+            if (!queue.offer(write)) {
+                writes.invalidate(write.getTrackingId());
+                throw new TaskRejectedException("Student write queue is full");
+            }
+            return write;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        worker = new Thread(this::drain, "student-write-behind");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        try {
+            worker.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("Student write queue not drained within {}, {} writes are lost", shutdownTimeout, queue.size());
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null && worker.isAlive();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<StudentWrite> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            StudentWrite first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (!accepting) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                apply(batch);
+            } catch (RuntimeException e) {
+                // the worker has to survive anything a batch throws, the writes are failed one by one already
+                log.error("Student write-behind batch failed", e);
+            }
+            batch.clear();
+        }
+    }
+
+    void apply(List<StudentWrite> batch) {
+        List<StudentWrite> creates = new ArrayList<>();
+        Map<Long, List<StudentWrite>> updatesById = new LinkedHashMap<>();
+        for (StudentWrite write : batch) {
+            if (write.getType() == StudentWrite.Type.CREATE) {
+                creates.add(write);
+            } else {
+                updatesById.computeIfAbsent(write.getStudentId(), id -> new ArrayList<>()).add(write);
+            }
+        }
+        if (!creates.isEmpty()) {
+            applyCreates(creates);
+        }
+        if (!updatesById.isEmpty()) {
+            applyUpdates(updatesById);
+        }
+    }
+
+    private void applyCreates(List<StudentWrite> creates) {
+        List<Student> saved;
+        try {
+            saved = studentService.saveStudents(creates.stream().map(StudentWrite::getStudent).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} student creates failed, retrying one by one", creates.size(), e);
+            for (StudentWrite create : creates) {
+                // the failed batch may have assigned ids that were rolled back with it
+                create.getStudent().setId(0);
+                create.getStudent().setVersion(0);
+                try {
+                    create.complete(studentService.saveStudent(create.getStudent()));
+                } catch (RuntimeException createFailure) {
+                    fail(create, createFailure);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < creates.size(); i++) {
+            creates.get(i).complete(saved.get(i));
+        }
+    }
+
+    private void applyUpdates(Map<Long, List<StudentWrite>> updatesById) {
+        Map<Long, Student> updated = new HashMap<>();
+        try {
+            studentService.updateStudents(updatesById.values().stream().map(updates -> last(updates).getStudent()).collect(Collectors.toList()))
+                          .forEach(student -> updated.put(student.getId(), student));
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} student updates failed, retrying one by one", updatesById.size(), e);
+            updatesById.forEach((id, updates) -> {
+                try {
+                    Student student = studentService.updateStudent(last(updates).getStudent());
+                    updates.forEach(update -> update.complete(student));
+                } catch (RuntimeException updateFailure) {
+                    updates.forEach(update -> fail(update, updateFailure));
+                }
+            });
+            return;
+        }
+        updatesById.forEach((id, updates) -> updates.forEach(update -> update.complete(updated.get(id))));
+    }
+
+    private static StudentWrite last(List<StudentWrite> updates) {
+        return updates.get(updates.size() - 1);
+    }
+
+    private static void fail(StudentWrite write, RuntimeException e) {
+        if (e instanceof ResourceAlreadyExistsException || e instanceof ResourceNotFoundException) {
+            write.fail(e.getMessage());
+        } else {
+            log.warn("Student write {} failed", write, e);
+            write.fail("Write failed");
+        }
+    }
+}
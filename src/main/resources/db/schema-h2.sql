@@ -0,0 +1,15 @@
+-- Schema of com.example.entity.Student as Hibernate generates it for H2, for profiles that skip Hibernate's schema
+-- tooling (faststart). Keep in step with the entity's mapping.
+create sequence if not exists students_seq start with 1 increment by 50;
+
+create table if not exists students (
+    id bigint not null,
+    email varchar(255),
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null,
+    primary key (id),
+    constraint uk_students_email unique (email)
+);
+
+create index if not exists idx_students_first_name_last_name on students (first_name, last_name);
@@ -0,0 +1,43 @@
+package com.example;
+
+import com.example.entity.Student;
+import com.example.exception.ResourceAlreadyExistsException;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("faststart")
+@DisplayName(value = "The faststart profile runs against the scripted schema")
+class SpringbootTestingApplicationFastStartTests {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "Scripted schema matches the mapping: ids, versions and the unique email")
+    void givenFastStartProfile_whenStudentsWritten_thenSchemaMatchesMapping() {
+        //        given - precondition/setup
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < Student.ID_ALLOCATION_SIZE + 1; i++) {
+            students.add(Student.builder().firstName("first" + i).lastName("last" + i).email("faststart" + i + "@example.com").build());
+        }
+        //        when - action/behaviour you want to test
+        List<Student> saved = studentService.saveStudents(students);
+        Student updated = studentService.updateStudent(new Student(saved.get(0).getId(), "Rahul", "Dravid", "rahul@dravid.com", 0));
+        //        then - verify the output
+        Assertions.assertThat(saved).extracting(Student::getId).doesNotHaveDuplicates();
+        Assertions.assertThat(updated.getVersion()).isEqualTo(1L);
+        Assertions.assertThat(studentService.getStudentByEmail("rahul@dravid.com")).isPresent();
+        Assertions.assertThatThrownBy(() -> studentService.saveStudent(Student.builder().firstName("Rahul").lastName("Dravid")
+                                                                              .email("rahul@dravid.com").build()))
+                  .isInstanceOf(ResourceAlreadyExistsException.class);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+@SpringBootTest
+@ActiveProfiles("production")
+@DisplayName(value = "The production profile sizes the pool and caches statements")
+class SpringbootTestingApplicationProductionTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName(value = "Fixed-size, fail-fast pool whose connections carry the statement cache setting")
+    void givenProductionProfile_whenConnected_thenPoolAndDriverTuned() {
+        //        given - precondition/setup
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        //        when - action/behaviour you want to test
+        String queryCacheSize = jdbcTemplate.queryForObject(
+                "select setting_value from information_schema.settings where setting_name = 'QUERY_CACHE_SIZE'", String.class);
+        //        then - verify the output
+        Assertions.assertThat(hikari.getMaximumPoolSize()).isEqualTo(10);
+        Assertions.assertThat(hikari.getMinimumIdle()).isEqualTo(10);
+        Assertions.assertThat(hikari.getConnectionTimeout()).isEqualTo(2000L);
+        Assertions.assertThat(hikari.getPoolName()).isEqualTo("student");
+        Assertions.assertThat(queryCacheSize).isEqualTo("64");
+    }
+}
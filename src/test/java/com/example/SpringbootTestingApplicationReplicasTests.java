@@ -0,0 +1,40 @@
+package com.example;
+
+import com.example.entity.Student;
+import com.example.routing.ReplicaRoutingDataSource;
+import com.example.service.StudentService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("replicas")
+@DisplayName(value = "The replicas profile reads through a read-only replica pool on the local database")
+class SpringbootTestingApplicationReplicasTests {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Test
+    @DisplayName(value = "Writes are read back through the replica pool")
+    void givenReplicasProfile_whenStudentWritten_thenReadFromReplicaPool() {
+        //        given - precondition/setup
+        HikariDataSource replica = (HikariDataSource) replicaRoutingDataSource.getReplicas().get(0);
+        //        when - action/behaviour you want to test
+        Student saved = studentService.saveStudent(Student.builder().firstName("Jasprit").lastName("Bumrah")
+                                                          .email("jasprit@bumrah.com").build());
+        //        then - verify the output
+        Assertions.assertThat(studentService.getStudentByEmail("jasprit@bumrah.com")).get()
+                  .extracting(Student::getId).isEqualTo(saved.getId());
+        Assertions.assertThat(replica.getPoolName()).isEqualTo("student-replica-0");
+        Assertions.assertThat(replica.isReadOnly()).isTrue();
+        Assertions.assertThat(replica.getHikariPoolMXBean()).isNotNull();
+    }
+}
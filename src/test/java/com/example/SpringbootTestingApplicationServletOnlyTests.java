@@ -0,0 +1,29 @@
+package com.example;
+
+import com.example.service.ReactiveStudentService;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:file:./target/h2/servlet-only",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+@DisplayName(value = "The servlet application starts on a database R2DBC cannot derive a URL for")
+class SpringbootTestingApplicationServletOnlyTests {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    @DisplayName(value = "Without the reactive profile no R2DBC beans are created")
+    void givenFileDatabase_whenStarted_thenReactiveSideNotLoaded() {
+        //        when - action/behaviour you want to test
+        String[] reactiveServices = applicationContext.getBeanNamesForType(ReactiveStudentService.class);
+        //        then - verify the output
+        Assertions.assertThat(reactiveServices).isEmpty();
+        Assertions.assertThat(applicationContext.getBean(StudentService.class).getStudentById(Long.MAX_VALUE)).isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.compression;
+
+import com.example.exception.RequestBodyTooLargeException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@DisplayName(value = "Request Decompression Filter Test Suite")
+class RequestDecompressionFilterTest {
+
+    private static final String BODY = "{\"firstName\":\"Virat\",\"lastName\":\"Kohli\",\"email\":\"virat@kohli.com\"}";
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("POST", "/api/student");
+        request.setContentType("application/json");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName(value = "Gzip request body is inflated for the handler")
+    void givenGzipBody_whenFilter_thenChainReadsInflatedBody() throws Exception {
+        //        given - precondition/setup
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(gzip(BODY));
+        MockFilterChain chain = new MockFilterChain();
+        //        when - action/behaviour you want to test
+        new RequestDecompressionFilter(1024).doFilter(request, response, chain);
+        //        then - verify the output
+        HttpServletRequest inflated = (HttpServletRequest) chain.getRequest();
+        Assertions.assertThat(inflated.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        Assertions.assertThat(inflated.getContentLengthLong()).isEqualTo(-1);
+        Assertions.assertThat(StreamUtils.copyToString(inflated.getInputStream(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName(value = "Deflate request body is inflated for the handler")
+    void givenDeflateBody_whenFilter_thenChainReadsInflatedBody() throws Exception {
+        //        given - precondition/setup
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "deflate");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        request.setContent(bytes.toByteArray());
+        MockFilterChain chain = new MockFilterChain();
+        //        when - action/behaviour you want to test
+        new RequestDecompressionFilter(1024).doFilter(request, response, chain);
+        //        then - verify the output
+        Assertions.assertThat(StreamUtils.copyToString(chain.getRequest().getInputStream(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName(value = "Unknown content coding is rejected with 415")
+    void givenUnknownEncoding_whenFilter_thenUnsupportedMediaType() throws Exception {
+        //        given - precondition/setup
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "br");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        //        when - action/behaviour you want to test
+        new RequestDecompressionFilter(1024).doFilter(request, response, chain);
+        //        then - verify the output
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+        Assertions.assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName(value = "Reading past the inflated size limit fails with a dedicated exception")
+    void givenBodyInflatingPastLimit_whenRead_thenRequestBodyTooLarge() throws Exception {
+        //        given - precondition/setup
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            large.append(BODY);
+        }
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(gzip(large.toString()));
+        MockFilterChain chain = new MockFilterChain();
+        //        when - action/behaviour you want to test
+        new RequestDecompressionFilter(64 * 1024).doFilter(request, response, chain);
+        //        then - verify the output
+        Assertions.assertThatThrownBy(() -> StreamUtils.copyToByteArray(chain.getRequest().getInputStream()))
+                  .isInstanceOf(RequestBodyTooLargeException.class);
+    }
+
+    @Test
+    @DisplayName(value = "Non-blocking reads of an inflated body listen on the container's stream")
+    void givenReadListener_whenSetOnInflatedBody_thenDelegatedToContainerStream() throws Exception {
+        //        given - precondition/setup
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        ListenableInputStream body = new ListenableInputStream(gzip(BODY));
+        HttpServletRequest container = new HttpServletRequestWrapper(request) {
+            @Override
+            public ServletInputStream getInputStream() {
+                return body;
+            }
+        };
+        MockFilterChain chain = new MockFilterChain();
+        ReadListener listener = new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+            }
+
+            @Override
+            public void onAllDataRead() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+        //        when - action/behaviour you want to test
+        new RequestDecompressionFilter(64 * 1024).doFilter(container, response, chain);
+        ServletInputStream inflated = chain.getRequest().getInputStream();
+        inflated.setReadListener(listener);
+        body.ready = false;
+        //        then - verify the output
+        Assertions.assertThat(body.readListener).isSameAs(listener);
+        Assertions.assertThat(inflated.isReady()).isFalse();
+        body.ready = true;
+        Assertions.assertThat(inflated.isReady()).isTrue();
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class ListenableInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream bytes;
+        private ReadListener readListener;
+        private boolean ready = true;
+
+        ListenableInputStream(byte[] content) {
+            this.bytes = new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public int read() {
+            return bytes.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return bytes.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.readListener = readListener;
+        }
+    }
+}
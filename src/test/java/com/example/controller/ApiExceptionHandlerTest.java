@@ -0,0 +1,54 @@
+package com.example.controller;
+
+import com.example.exception.RequestBodyTooLargeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientConnectionException;
+
+class ApiExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApiExceptionHandler apiExceptionHandler = new ApiExceptionHandler(meterRegistry);
+
+    @Test
+    @DisplayName(value = "Request body inflating past its limit is answered with 413")
+    void givenBodyTooLarge_whenHandle_thenReturnPayloadTooLarge() {
+        //        when - action/behaviour you want to test
+        ResponseEntity<Void> response = apiExceptionHandler.handleBodyTooLarge(new RequestBodyTooLargeException("too large"));
+        //        then - verify the output
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @Test
+    @DisplayName(value = "Saturated executor is answered with 503 and Retry-After")
+    void givenTaskRejected_whenHandle_thenReturnServiceUnavailable() {
+        //        when - action/behaviour you want to test
+        ResponseEntity<Void> response = apiExceptionHandler.handleTaskRejected(new TaskRejectedException("queue full"));
+        //        then - verify the output
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo(ApiExceptionHandler.RETRY_AFTER_SECONDS);
+        Assertions.assertThat(meterRegistry.get("student.requests.rejected").tag("reason", "executor").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName(value = "Connection pool timeout is answered with 503 and Retry-After")
+    void givenNoConnection_whenHandle_thenReturnServiceUnavailable() {
+        //        given - precondition/setup
+        CannotCreateTransactionException e = new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                new SQLTransientConnectionException("student - Connection is not available, request timed out after 2000ms."));
+        //        when - action/behaviour you want to test
+        ResponseEntity<Void> response = apiExceptionHandler.handleNoConnection(e);
+        //        then - verify the output
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo(ApiExceptionHandler.RETRY_AFTER_SECONDS);
+        Assertions.assertThat(meterRegistry.get("student.requests.rejected").tag("reason", "connection").counter().count()).isEqualTo(1);
+    }
+}
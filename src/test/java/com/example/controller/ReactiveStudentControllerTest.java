@@ -0,0 +1,190 @@
+package com.example.controller;
+
+import com.example.config.ReactiveConfig;
+import com.example.entity.Student;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@DisplayName(value = "JUnit Test Case suite for Reactive Student Controller")
+class ReactiveStudentControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    @Qualifier(ReactiveConfig.REACTIVE_STUDENT_CONNECTION_POOL)
+    private Disposable connectionPool;
+
+    @Test
+    @DisplayName(value = "Create, fetch and list Students through WebFlux")
+    void givenStudent_whenCreateAndGetStudent_thenReturnStudent() {
+        //        given - precondition/setup
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@webflux.com").build();
+        //        when - action/behaviour you want to test
+        Student created = webTestClient.post().uri("/api/student")
+                                       .contentType(MediaType.APPLICATION_JSON)
+                                       .bodyValue(student)
+                                       .exchange()
+                                       .expectStatus().isCreated()
+                                       .expectBody(Student.class)
+                                       .returnResult()
+                                       .getResponseBody();
+        //        then - verify the output
+        webTestClient.get().uri("/api/student/{id}", created.getId())
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody().jsonPath("$.email").isEqualTo(student.getEmail());
+        webTestClient.get().uri("/api/student?after={after}", created.getId() - 1)
+                     .accept(MediaType.APPLICATION_NDJSON)
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBodyList(Student.class).hasSize(1);
+        webTestClient.get().uri("/api/student?limit=1&after={after}", created.getId() - 1)
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody().jsonPath("$[0].id").isEqualTo(created.getId());
+    }
+
+    @Test
+    @DisplayName(value = "Bulk create Students from a JSON array and from NDJSON through WebFlux")
+    void givenStudents_whenCreateStudents_thenReturnStudents() {
+        //        given - precondition/setup
+        String ndjson = "{\"firstName\":\"nd\",\"lastName\":\"one\",\"email\":\"nd1@webflux.com\"}\n"
+                + "{\"firstName\":\"nd\",\"lastName\":\"two\",\"email\":\"nd2@webflux.com\"}\n";
+        //        when - action/behaviour you want to test
+        webTestClient.post().uri("/api/student/bulk")
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .bodyValue(List.of(Student.builder().firstName("json").lastName("one").email("json1@webflux.com").build(),
+                             Student.builder().firstName("json").lastName("two").email("json2@webflux.com").build()))
+                     .exchange()
+        //        then - verify the output
+                     .expectStatus().isCreated()
+                     .expectBody().jsonPath("$.length()").isEqualTo(2)
+                     .jsonPath("$[1].email").isEqualTo("json2@webflux.com");
+        webTestClient.post().uri("/api/student/bulk")
+                     .contentType(MediaType.APPLICATION_NDJSON)
+                     .bodyValue(ndjson)
+                     .exchange()
+                     .expectStatus().isCreated()
+                     .expectBody().jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName(value = "Update Student through WebFlux honours If-Match")
+    void givenStudent_whenUpdateStudent_thenCheckIfMatch() {
+        //        given - precondition/setup
+        Student created = webTestClient.post().uri("/api/student")
+                                       .contentType(MediaType.APPLICATION_JSON)
+                                       .bodyValue(Student.builder().firstName("put").lastName("me").email("put@webflux.com").build())
+                                       .exchange()
+                                       .expectBody(Student.class)
+                                       .returnResult()
+                                       .getResponseBody();
+        String eTag = webTestClient.get().uri("/api/student/{id}", created.getId())
+                                   .exchange()
+                                   .returnResult(Student.class)
+                                   .getResponseHeaders()
+                                   .getETag();
+        Student update = Student.builder().firstName("put").lastName("again").email("put@webflux.com").build();
+        //        when - action/behaviour you want to test
+        webTestClient.put().uri("/api/student/{id}", created.getId())
+                     .header(HttpHeaders.IF_MATCH, eTag)
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .bodyValue(update)
+                     .exchange()
+        //        then - verify the output
+                     .expectStatus().isOk()
+                     .expectBody().jsonPath("$.lastName").isEqualTo("again");
+        webTestClient.put().uri("/api/student/{id}", created.getId())
+                     .header(HttpHeaders.IF_MATCH, eTag)
+                     .contentType(MediaType.APPLICATION_JSON)
+                     .bodyValue(update)
+                     .exchange()
+                     .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    @DisplayName(value = "Student fetched as Smile through WebFlux is tagged for Smile")
+    void givenStudent_whenGetStudentAsSmile_thenETagNamesSmile() {
+        //        given - precondition/setup
+        Student created = webTestClient.post().uri("/api/student")
+                                       .contentType(MediaType.APPLICATION_JSON)
+                                       .bodyValue(Student.builder().firstName("smile").lastName("me").email("smile@webflux.com").build())
+                                       .exchange()
+                                       .expectBody(Student.class)
+                                       .returnResult()
+                                       .getResponseBody();
+        //        when - action/behaviour you want to test
+        webTestClient.get().uri("/api/student/{id}", created.getId())
+                     .accept(MediaType.parseMediaType(StudentController.APPLICATION_SMILE_VALUE))
+                     .exchange()
+        //        then - verify the output
+                     .expectStatus().isOk()
+                     .expectHeader().contentType(StudentController.APPLICATION_SMILE_VALUE)
+                     .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + created.getVersion() + "-x-jackson-smile\"");
+    }
+
+    @Test
+    @DisplayName(value = "Unchanged Student returns 304 through WebFlux")
+    void givenMatchingETag_whenGetStudent_thenReturnNotModified() {
+        //        given - precondition/setup
+        Student created = webTestClient.post().uri("/api/student")
+                                       .contentType(MediaType.APPLICATION_JSON)
+                                       .bodyValue(Student.builder().firstName("not").lastName("modified").email("not@webflux.com").build())
+                                       .exchange()
+                                       .expectBody(Student.class)
+                                       .returnResult()
+                                       .getResponseBody();
+        String eTag = "\"" + created.getVersion() + "-json\"";
+        //        when - action/behaviour you want to test
+        webTestClient.get().uri("/api/student/{id}", created.getId())
+                     .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                     .exchange()
+        //        then - verify the output
+                     .expectStatus().isNotModified()
+                     .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                     .expectBody().isEmpty();
+    }
+
+    @Test
+    @DisplayName(value = "Missing Student returns 404 through WebFlux")
+    void givenStudentId_whenGetStudentById_thenReturnNotFound() {
+        webTestClient.get().uri("/api/student/{id}", Long.MAX_VALUE)
+                     .exchange()
+                     .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName(value = "Reactive queries borrow connections from a bounded pool and give them back")
+    void givenRequests_whenServed_thenConnectionsPooled() {
+        //        given - precondition/setup
+        Assertions.assertThat(connectionPool).isInstanceOf(ConnectionPool.class);
+        //        when - action/behaviour you want to test
+        for (int i = 0; i < 20; i++) {
+            webTestClient.get().uri("/api/student/{id}", Long.MAX_VALUE)
+                         .exchange()
+                         .expectStatus().isNotFound();
+        }
+        //        then - verify the output
+        PoolMetrics metrics = ((ConnectionPool) connectionPool).getMetrics().orElseThrow(IllegalStateException::new);
+        Assertions.assertThat(metrics.getMaxAllocatedSize()).isEqualTo(10);
+        Assertions.assertThat(metrics.allocatedSize()).isBetween(1, 10);
+        Assertions.assertThat(metrics.acquiredSize()).isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.controller;
+
+import com.example.MockMvcAsync;
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("async")
+@DisplayName(value = "JUnit Test Case suite for Student Controller in async mode")
+class StudentControllerAsyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "Create and fetch a Student on the student executor")
+    void givenStudent_whenCreateAndGetStudent_thenHandledOnStudentExecutor() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().id(1).firstName("john").lastName("cena").email("john@async.com").build();
+        List<String> serviceThreads = new CopyOnWriteArrayList<>();
+        BDDMockito.given(studentService.saveStudent(ArgumentMatchers.any(Student.class))).willAnswer(invocation -> {
+            serviceThreads.add(Thread.currentThread().getName());
+            return student;
+        });
+        BDDMockito.given(studentService.getStudentById(student.getId())).willAnswer(invocation -> {
+            serviceThreads.add(Thread.currentThread().getName());
+            return Optional.of(student);
+        });
+        //        when - action/behaviour you want to test
+        MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student")
+                                                            .contentType(MediaType.APPLICATION_JSON)
+                                                            .content(objectMapper.writeValueAsString(student)))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", student.getId()));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(student.getEmail())));
+        Assertions.assertThat(serviceThreads).hasSize(2).allSatisfy(thread -> Assertions.assertThat(thread).startsWith("student-request-"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.controller;
+
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName(value = "Compressed Student responses over HTTP")
+class StudentControllerCompressionTest {
+
+    // well above server.compression.min-response-size
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "A large keyset page is gzipped along with its ETag")
+    void givenLargePage_whenGetStudentsPageAcceptingGzip_thenResponseIsGzipped() {
+        //        given - precondition/setup
+        List<Student> page = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            page.add(Student.builder().id(id).firstName("john").lastName("cena").email(id + "@cena.com").build());
+        }
+        BDDMockito.given(studentService.getStudentsAfter(0L, PAGE_SIZE)).willReturn(page);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        //        when - action/behaviour you want to test
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/student?limit={limit}", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class, PAGE_SIZE);
+        //        then - verify the output
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(StudentETags.of(page));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.controller;
+
+import com.example.entity.Student;
+import com.example.repository.StudentListVersion;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Consumer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.mvc.async.request-timeout=500ms")
+@DisplayName(value = "Streamed Student responses over HTTP")
+class StudentControllerStreamingTest {
+
+    // streamed over three seconds; Tomcat checks async timeouts about once a second
+    private static final int ROWS = 10;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "A listing streamed for longer than the async request timeout is sent in full")
+    void givenSlowStream_whenGetAllStudents_thenNotCutOffByAsyncTimeout() {
+        //        given - precondition/setup
+        BDDMockito.given(studentService.getStudentsVersion(0L)).willReturn(new StudentListVersion(ROWS, ROWS, 55, 0));
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Student> action = invocation.getArgument(1);
+            for (long id = 1; id <= ROWS; id++) {
+                Thread.sleep(300);
+                action.accept(Student.builder().id(id).firstName("slow").lastName("stream").email(id + "@slow.com").build());
+            }
+            return null;
+        }).given(studentService).streamStudentsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
+        //        when - action/behaviour you want to test
+        ResponseEntity<Student[]> response = restTemplate.getForEntity("/api/student", Student[].class);
+        //        then - verify the output
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getBody()).hasSize(ROWS);
+    }
+}
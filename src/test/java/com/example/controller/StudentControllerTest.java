@@ -1,28 +1,60 @@
 package com.example.controller;
 
+import com.example.MockMvcAsync;
+import com.example.compression.RequestDecompressionFilter;
+import com.example.config.AsyncConfig;
 import com.example.entity.Student;
+import com.example.export.StudentExportFormat;
+import com.example.export.StudentExporter;
+import com.example.exception.ResourceVersionMismatchException;
+import com.example.repository.StudentListVersion;
+import com.example.repository.StudentField;
+import com.example.search.StudentSearchIndex;
 import com.example.service.StudentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @WebMvcTest(StudentController.class)
+@Import(AsyncConfig.class)
 @DisplayName(value = "JUnit Test Case suite for Student Controller")
 class StudentControllerTest {
 
@@ -32,9 +64,18 @@ class StudentControllerTest {
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private StudentSearchIndex studentSearchIndex;
+
+    @MockBean
+    private StudentExporter studentExporter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
     @Test
     @DisplayName(value = "Test Create Student REST API")
     public void givenStudent_whenCreateStudent_thenReturnSavedStudent() throws Exception {
@@ -42,7 +83,7 @@ class StudentControllerTest {
         Student student = Student.builder().firstName("john").lastName("cena").email("john@cena.com").build();
         BDDMockito.given(studentService.saveStudent(ArgumentMatchers.any(Student.class))).willAnswer(invocation -> invocation.getArgument(0));
 //        when - action to test
-        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/student")
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student")
                                                                        .contentType(MediaType.APPLICATION_JSON)
                                                                        .content(objectMapper.writeValueAsString(student)));
 //        then - verify output of action
@@ -53,6 +94,80 @@ class StudentControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName(value = "Test Bulk Create Students REST API - JSON array")
+    void givenStudentArray_whenCreateStudents_thenReturnSavedStudents() throws Exception {
+        //        given - precondition/setup
+        List<Student> students = Arrays.asList(
+                Student.builder().firstName("john").lastName("cena").email("john@cena.com").build(),
+                Student.builder().firstName("roman").lastName("reigns").email("roman@reigns.com").build());
+        BDDMockito.given(studentService.saveStudents(ArgumentMatchers.anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student/bulk")
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .content(objectMapper.writeValueAsString(students)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].email", CoreMatchers.is("roman@reigns.com")));
+    }
+
+    @Test
+    @DisplayName(value = "Test Bulk Create Students REST API - NDJSON")
+    void givenNdjsonStudents_whenCreateStudents_thenReturnSavedStudents() throws Exception {
+        //        given - precondition/setup
+        String ndjson = "{\"firstName\":\"john\",\"lastName\":\"cena\",\"email\":\"john@cena.com\"}\n"
+                + "{\"firstName\":\"roman\",\"lastName\":\"reigns\",\"email\":\"roman@reigns.com\"}\n";
+        BDDMockito.given(studentService.saveStudents(ArgumentMatchers.anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student/bulk")
+                                                                       .contentType(MediaType.APPLICATION_NDJSON)
+                                                                       .content(ndjson));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName", CoreMatchers.is("john")));
+    }
+
+    @Test
+    @DisplayName(value = "Test Bulk Create Students REST API - malformed NDJSON is a bad request")
+    void givenMalformedNdjson_whenCreateStudents_thenReturnBadRequest() throws Exception {
+        //        given - precondition/setup
+        String ndjson = "{\"firstName\":\"john\",\"lastName\":\"cena\",\"email\":\"john@cena.com\"}\n"
+                + "{\"firstName\":\"roman\",\n";
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/student/bulk")
+                                                                       .contentType(MediaType.APPLICATION_NDJSON)
+                                                                       .content(ndjson));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Test Bulk Create Students REST API - more rows than allowed is rejected with 413")
+    void givenTooManyStudents_whenCreateStudents_thenReturnPayloadTooLarge() throws Exception {
+        //        given - precondition/setup
+        StringBuilder ndjson = new StringBuilder();
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i <= StudentController.MAX_BULK_SIZE; i++) {
+            ndjson.append("{\"firstName\":\"john\",\"lastName\":\"cena\"}\n");
+            json.append(i == 0 ? "" : ",").append("{\"firstName\":\"john\",\"lastName\":\"cena\"}");
+        }
+        json.append(']');
+        //        when - action/behaviour you want to test
+        ResultActions ndjsonResponse = mockMvc.perform(MockMvcRequestBuilders.post("/api/student/bulk")
+                                                                             .contentType(MediaType.APPLICATION_NDJSON)
+                                                                             .content(ndjson.toString()));
+        ResultActions jsonResponse = mockMvc.perform(MockMvcRequestBuilders.post("/api/student/bulk")
+                                                                           .contentType(MediaType.APPLICATION_JSON)
+                                                                           .content(json.toString()));
+        //        then - verify the output
+        ndjsonResponse.andExpect(MockMvcResultMatchers.status().isPayloadTooLarge());
+        jsonResponse.andExpect(MockMvcResultMatchers.status().isPayloadTooLarge());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
     @Test
     void givenListOfStudents_whenGetAllStudents_thenReturnStudentsList() throws Exception {
         //        given - precondition/setup
@@ -60,15 +175,456 @@ class StudentControllerTest {
         Student s2 = Student.builder().firstName("roman").lastName("reigns").email("roman@reigns.com").build();
         Student s3 = Student.builder().firstName("seth").lastName("rollins").email("seth@rollins.com").build();
         List<Student> studentList = Arrays.asList(s1, s2, s3);
-        BDDMockito.given(studentService.getAllStudents()).willReturn(studentList);
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Student> action = invocation.getArgument(1);
+            studentList.forEach(action);
+            return null;
+        }).given(studentService).streamStudentsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
+        BDDMockito.given(studentService.getStudentsVersion(0L)).willReturn(new StudentListVersion(3, 3, 6, 0));
         //        when - action/behaviour you want to test
-        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student"));
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/student"))
+                                     .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                                     .andReturn();
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult));
         //        then - verify the output
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(MockMvcResultHandlers.print())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(studentList.size())));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(studentList.size())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].email", CoreMatchers.is(s3.getEmail())))
+                .andExpect(MockMvcResultMatchers.header().stringValues(HttpHeaders.ETAG, StudentETags.of(new StudentListVersion(3, 3, 6, 0))));
+        BDDMockito.then(studentService).should(Mockito.never()).getAllStudents();
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get Students keyset page REST API")
+    void givenAfterAndLimit_whenGetAllStudents_thenReturnKeysetPage() throws Exception {
+        //        given - precondition/setup
+        Student s4 = Student.builder().id(4).firstName("john").lastName("cena").email("john@cena.com").build();
+        Student s5 = Student.builder().id(5).firstName("roman").lastName("reigns").email("roman@reigns.com").build();
+        BDDMockito.given(studentService.getStudentsAfter(3, 2)).willReturn(Arrays.asList(s4, s5));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student")
+                                                                       .param("after", "3")
+                                                                       .param("limit", "2"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].id", CoreMatchers.is(5)));
+    }
+
+    @Test
+    void givenLimitAboveMaximum_whenGetAllStudents_thenReturnBadRequest() throws Exception {
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student")
+                                                                       .param("limit", String.valueOf(StudentController.MAX_PAGE_SIZE + 1)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+
+    @Test
+    @DisplayName(value = "Junit test for Get Students By Ids REST API")
+    void givenIds_whenGetStudentsByIds_thenReturnStudentsInOneCall() throws Exception {
+        //        given - precondition/setup
+        Student s4 = Student.builder().id(4).firstName("john").lastName("cena").email("john@cena.com").build();
+        Student s2 = Student.builder().id(2).firstName("roman").lastName("reigns").email("roman@reigns.com").build();
+        BDDMockito.given(studentService.getStudentsByIds(Arrays.asList(4L, 9L, 2L))).willReturn(Arrays.asList(s4, s2));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student").param("ids", "4,9,2"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].id", CoreMatchers.is(Arrays.asList(4, 2))));
+        BDDMockito.then(studentService).should(Mockito.never()).getStudentById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Lookup Students REST API - ids in the body")
+    void givenIdsInBody_whenLookupStudents_thenReturnStudents() throws Exception {
+        //        given - precondition/setup
+        Student s4 = Student.builder().id(4).firstName("john").lastName("cena").email("john@cena.com").build();
+        BDDMockito.given(studentService.getStudentsByIds(Arrays.asList(4L, 5L))).willReturn(Collections.singletonList(s4));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student/lookup")
+                                                                     .contentType(MediaType.APPLICATION_JSON)
+                                                                     .content("[4,5]"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is(s4.getEmail())));
+    }
+
+    @Test
+    void givenTooManyIds_whenLookupStudents_thenReturnBadRequest() throws Exception {
+        //        given - precondition/setup
+        Long[] ids = new Long[StudentController.MAX_PAGE_SIZE + 1];
+        Arrays.fill(ids, 1L);
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/student/lookup")
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .content(objectMapper.writeValueAsString(ids)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/student").param("ids", ""))
+               .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get Students REST API - sparse fields page")
+    void givenFieldsAndLimit_whenGetAllStudents_thenReturnSelectedFields() throws Exception {
+        //        given - precondition/setup
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 4L);
+        row.put("email", "john@cena.com");
+        BDDMockito.given(studentService.getStudentFieldsAfter(EnumSet.of(StudentField.ID, StudentField.EMAIL), 3, 2))
+                  .willReturn(Collections.singletonList(row));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student")
+                                                                       .param("after", "3")
+                                                                       .param("limit", "2")
+                                                                       .param("fields", "email"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is(4)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is("john@cena.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName").doesNotExist());
+        BDDMockito.then(studentService).should(Mockito.never()).getStudentsAfter(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get Students REST API - sparse fields stream")
+    void givenFields_whenGetAllStudents_thenStreamSelectedFields() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.given(studentService.getStudentsVersion(0L)).willReturn(new StudentListVersion(2, 2, 3, 0));
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Map<String, Object>> action = invocation.getArgument(2);
+            action.accept(Collections.singletonMap("id", 1L));
+            action.accept(Collections.singletonMap("id", 2L));
+            return null;
+        }).given(studentService).streamStudentFieldsAfter(ArgumentMatchers.eq(EnumSet.of(StudentField.ID)), ArgumentMatchers.eq(0L), ArgumentMatchers.any());
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student").param("fields", "id"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].id", CoreMatchers.is(2)));
+    }
+
+    @Test
+    @DisplayName(value = "Test Create Student REST API - Smile")
+    void givenSmileStudent_whenCreateStudent_thenReturnSmileStudent() throws Exception {
+        //        given - precondition/setup
+        SmileMapper smileMapper = new SmileMapper();
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@cena.com").build();
+        BDDMockito.given(studentService.saveStudent(ArgumentMatchers.any(Student.class))).willAnswer(invocation -> invocation.getArgument(0));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student")
+                                                                       .contentType(StudentController.APPLICATION_SMILE_VALUE)
+                                                                       .accept(StudentController.APPLICATION_SMILE_VALUE)
+                                                                       .content(smileMapper.writeValueAsBytes(student)));
+        //        then - verify the output
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isCreated())
+                              .andExpect(MockMvcResultMatchers.content().contentType(StudentController.APPLICATION_SMILE_VALUE))
+                              .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertThat(smileMapper.readValue(body, Student.class).getEmail()).isEqualTo(student.getEmail());
     }
 
+    @Test
+    @DisplayName(value = "Junit test for Get All Students REST API - CBOR stream")
+    void givenCborAccept_whenGetAllStudents_thenStreamCbor() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.given(studentService.getStudentsVersion(0L)).willReturn(new StudentListVersion(2, 2, 3, 0));
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Student> action = invocation.getArgument(1);
+            action.accept(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0));
+            action.accept(new Student(2, "Rohit", "Sharma", "rohit@sharma.com", 0));
+            return null;
+        }).given(studentService).streamStudentsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student")
+                                                                    .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON));
+        //        then - verify the output
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+                              .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                              .andReturn().getResponse().getContentAsByteArray();
+        Student[] students = new CBORMapper().readValue(body, Student[].class);
+        Assertions.assertThat(students).extracting(Student::getEmail).containsExactly("virat@kohli.com", "rohit@sharma.com");
+    }
+
+    @Test
+    void givenUnsupportedAccept_whenGetAllStudents_thenReturnNotAcceptable() throws Exception {
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student").accept(MediaType.APPLICATION_XML));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotAcceptable());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Search Students REST API")
+    void givenQuery_whenSearchStudents_thenReturnMatchesFromIndex() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.given(studentSearchIndex.search("vir koh", 5))
+                  .willReturn(Collections.singletonList(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0)));
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/search")
+                                                                       .param("q", "vir koh")
+                                                                       .param("limit", "5"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email", CoreMatchers.is("virat@kohli.com")));
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void givenBlankQuery_whenSearchStudents_thenReturnBadRequest() throws Exception {
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/search").param("q", " "));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(studentSearchIndex).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Export Students REST API")
+    void givenCsvFormat_whenExportStudents_thenStreamExporterOutput() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.willAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("id,firstName,lastName,email,version\r\n1,Virat,Kohli,virat@kohli.com,0\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).given(studentExporter).export(ArgumentMatchers.eq(StudentExportFormat.CSV), ArgumentMatchers.any(OutputStream.class));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/export").param("format", "csv"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION, CoreMatchers.containsString("students.csv")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.endsWith("1,Virat,Kohli,virat@kohli.com,0\r\n")));
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Current snapshot export is sent from its file")
+    void givenSnapshot_whenExportStudents_thenSendFile(@TempDir Path directory) throws Exception {
+        //        given - precondition/setup
+        Path snapshot = Files.write(directory.resolve("students.ndjson"),
+                "{\"id\":1,\"firstName\":\"Virat\"}\n".getBytes(StandardCharsets.UTF_8));
+        BDDMockito.given(studentExporter.currentSnapshot(StudentExportFormat.NDJSON)).willReturn(Optional.of(snapshot));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/export").param("snapshot", "true"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.header().longValue(HttpHeaders.CONTENT_LENGTH, Files.size(snapshot)))
+                .andExpect(MockMvcResultMatchers.content().string("{\"id\":1,\"firstName\":\"Virat\"}\n"));
+        BDDMockito.then(studentExporter).should(Mockito.never()).snapshot(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName(value = "Stale snapshot is written from the streamed body, off the request thread")
+    void givenStaleSnapshot_whenExportStudents_thenWrittenOnStreamingThread(@TempDir Path directory) throws Exception {
+        //        given - precondition/setup
+        Path snapshot = Files.write(directory.resolve("students.ndjson"),
+                "{\"id\":1,\"firstName\":\"Virat\"}\n".getBytes(StandardCharsets.UTF_8));
+        List<String> snapshotThreads = new CopyOnWriteArrayList<>();
+        BDDMockito.given(studentExporter.currentSnapshot(StudentExportFormat.NDJSON)).willReturn(Optional.empty());
+        BDDMockito.given(studentExporter.snapshot(StudentExportFormat.NDJSON)).willAnswer(invocation -> {
+            snapshotThreads.add(Thread.currentThread().getName());
+            return snapshot;
+        });
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/export").param("snapshot", "true"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("{\"id\":1,\"firstName\":\"Virat\"}\n"));
+        Assertions.assertThat(snapshotThreads).singleElement().asString().startsWith("student-stream-");
+    }
+
+    @Test
+    void givenUnknownFormat_whenExportStudents_thenReturnBadRequest() throws Exception {
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/export").param("format", "xlsx"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(studentExporter).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void givenJournalDisabled_whenGetChanges_thenReturnNotFound() throws Exception {
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/changes").param("since", "0"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotFound());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void givenUnknownField_whenGetAllStudents_thenReturnBadRequest() throws Exception {
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student")
+                                                                       .param("limit", "10")
+                                                                       .param("fields", "id,password"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get All Students REST API - unchanged list")
+    void givenMatchingETag_whenGetAllStudents_thenReturnNotModified() throws Exception {
+        //        given - precondition/setup
+        StudentListVersion version = new StudentListVersion(3, 3, 6, 0);
+        BDDMockito.given(studentService.getStudentsVersion(0L)).willReturn(version);
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student")
+                                                                       .header(HttpHeaders.IF_NONE_MATCH, StudentETags.of(version)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, StudentETags.of(version)))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        BDDMockito.then(studentService).should(Mockito.never()).streamStudentsAfter(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get Students REST API - unchanged sparse fields stream")
+    void givenMatchingETag_whenGetAllStudentFields_thenReturnNotModified() throws Exception {
+        //        given - precondition/setup
+        StudentListVersion version = new StudentListVersion(3, 3, 6, 0);
+        BDDMockito.given(studentService.getStudentsVersion(0L)).willReturn(version);
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student")
+                                                                       .param("fields", "email")
+                                                                       .header(HttpHeaders.IF_NONE_MATCH, StudentETags.of(version)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, StudentETags.of(version)))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        BDDMockito.then(studentService).should(Mockito.never())
+                  .streamStudentFieldsAfter(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get Students keyset page REST API - unchanged page")
+    void givenMatchingETag_whenGetStudentsPage_thenReturnNotModified() throws Exception {
+        //        given - precondition/setup
+        List<Student> page = Collections.singletonList(Student.builder().id(4).firstName("john").lastName("cena").email("john@cena.com").build());
+        BDDMockito.given(studentService.getStudentsAfter(3, 2)).willReturn(page);
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student")
+                                                                       .param("after", "3")
+                                                                       .param("limit", "2")
+                                                                       .header(HttpHeaders.IF_NONE_MATCH, StudentETags.of(page)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get Student By Id REST API - unchanged student")
+    void givenMatchingETag_whenGetStudentById_thenReturnNotModified() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().id(1).firstName("john").lastName("cena").email("john@cena.com").version(2).build();
+        BDDMockito.given(studentService.getStudentById(student.getId())).willReturn(Optional.of(student));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", student.getId())
+                                                                       .header(HttpHeaders.IF_NONE_MATCH, "\"2-json\""));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2-json\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Get Student By Id REST API - ETag of another format")
+    void givenJsonETag_whenGetStudentByIdAsSmile_thenReturnSmileWithItsOwnETag() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().id(1).firstName("john").lastName("cena").email("john@cena.com").version(2).build();
+        BDDMockito.given(studentService.getStudentById(student.getId())).willReturn(Optional.of(student));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", student.getId())
+                                                                       .accept(StudentController.APPLICATION_SMILE_VALUE)
+                                                                       .header(HttpHeaders.IF_NONE_MATCH, "\"2-json\""));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(StudentController.APPLICATION_SMILE_VALUE))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2-x-jackson-smile\""));
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Update Student REST API - If-Match of another format")
+    void givenSmileIfMatch_whenUpdateStudent_thenUpdatedAtTaggedVersion() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@wwe.com").build();
+        BDDMockito.given(studentService.updateStudent(ArgumentMatchers.any(Student.class), ArgumentMatchers.eq(2L)))
+                  .willAnswer(invocation -> invocation.getArgument(0));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.put("/api/student/{id}", 1)
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .header(HttpHeaders.IF_MATCH, "\"2-x-jackson-smile\"")
+                                                                       .content(objectMapper.writeValueAsString(student)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk());
+        BDDMockito.then(studentService).should().updateStudent(ArgumentMatchers.any(Student.class), ArgumentMatchers.eq(2L));
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Update Student REST API - If-Match")
+    void givenIfMatch_whenUpdateStudent_thenReturnUpdatedStudentWithNewETag() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@wwe.com").build();
+        BDDMockito.given(studentService.updateStudent(ArgumentMatchers.any(Student.class), ArgumentMatchers.eq(2L)))
+                  .willAnswer(invocation -> {
+                      Student updated = invocation.getArgument(0);
+                      updated.setVersion(3);
+                      return updated;
+                  });
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.put("/api/student/{id}", 1)
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .header(HttpHeaders.IF_MATCH, "\"2-json\"")
+                                                                       .content(objectMapper.writeValueAsString(student)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(student.getEmail())));
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Update Student REST API - stale If-Match")
+    void givenStaleIfMatch_whenUpdateStudent_thenReturnPreconditionFailed() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@wwe.com").build();
+        BDDMockito.given(studentService.updateStudent(ArgumentMatchers.any(Student.class), ArgumentMatchers.eq(1L)))
+                  .willThrow(new ResourceVersionMismatchException("stale"));
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.put("/api/student/{id}", 1)
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .header(HttpHeaders.IF_MATCH, "\"1-json\"")
+                                                                       .content(objectMapper.writeValueAsString(student)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName(value = "Junit test for Update Student REST API - weak If-Match")
+    void givenWeakIfMatch_whenUpdateStudent_thenReturnPreconditionFailed() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@wwe.com").build();
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.put("/api/student/{id}", 1)
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .header(HttpHeaders.IF_MATCH, "W/\"1-json\"")
+                                                                       .content(objectMapper.writeValueAsString(student)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
 
     //    Junit test for Get Student By Id REST API
     @Test
@@ -79,7 +635,7 @@ class StudentControllerTest {
         Student s1 = Student.builder().firstName("john").lastName("cena").email("john@cena.com").build();
         BDDMockito.given(studentService.getStudentById(studentId)).willReturn(Optional.of(s1));
         //        when - action/behaviour you want to test
-        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/{id}", studentId));
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", studentId));
 
         //        then - verify the output
         response.andExpect(MockMvcResultMatchers.status().isOk())
@@ -97,10 +653,47 @@ class StudentControllerTest {
         BDDMockito.given(studentService.getStudentById(studentId)).willReturn(Optional.empty());
 
         //        when - action/behaviour you want to test
-        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/{id}", studentId));
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", studentId));
 
         //        then - verify the output
         response.andExpect(MockMvcResultMatchers.status().isNotFound())
                 .andDo(MockMvcResultHandlers.print());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName(value = "Get Student By Id answers on the request thread when async handling is off")
+    void givenAsyncDisabled_whenGetStudentById_thenAsyncNotStarted() throws Exception {
+        //        given - precondition/setup
+        long studentId = 1L;
+        Student s1 = Student.builder().firstName("john").lastName("cena").email("john@cena.com").build();
+        BDDMockito.given(studentService.getStudentById(studentId)).willReturn(Optional.of(s1));
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/{id}", studentId));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.request().asyncNotStarted())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is(s1.getEmail())));
+    }
+
+    @Test
+    @DisplayName(value = "Compressed request body inflating past the limit is answered with 413")
+    void givenGzipBodyPastLimit_whenCreateStudent_thenPayloadTooLarge() throws Exception {
+        //        given - precondition/setup
+        MockMvc decompressingMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                                                      .addFilters(new RequestDecompressionFilter(16))
+                                                      .build();
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@cena.com").build();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+            gzip.write(objectMapper.writeValueAsBytes(student));
+        }
+        //        when - action/behaviour you want to test
+        ResultActions response = decompressingMockMvc.perform(MockMvcRequestBuilders.post("/api/student")
+                                                                                    .contentType(MediaType.APPLICATION_JSON)
+                                                                                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                                                                                    .content(body.toByteArray()));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isPayloadTooLarge());
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.controller;
+
+import com.example.MockMvcAsync;
+import com.example.config.AsyncConfig;
+import com.example.entity.Student;
+import com.example.export.StudentExporter;
+import com.example.search.StudentSearchIndex;
+import com.example.service.StudentService;
+import com.example.writebehind.StudentWrite;
+import com.example.writebehind.StudentWriteQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Optional;
+
+@WebMvcTest(StudentController.class)
+@Import(AsyncConfig.class)
+@DisplayName(value = "JUnit Test Case suite for Student Controller in write-behind mode")
+class StudentControllerWriteBehindTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private StudentService studentService;
+
+    @MockBean
+    private StudentSearchIndex studentSearchIndex;
+
+    @MockBean
+    private StudentExporter studentExporter;
+
+    @MockBean
+    private StudentWriteQueue studentWriteQueue;
+
+    @Test
+    @DisplayName(value = "Create is queued and answered with 202 and a tracking id")
+    void givenStudent_whenCreateStudent_thenAcceptedWithTrackingId() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().firstName("john").lastName("cena").email("john@cena.com").build();
+        StudentWrite write = new StudentWrite("abc", StudentWrite.Type.CREATE, student);
+        BDDMockito.given(studentWriteQueue.create(ArgumentMatchers.any(Student.class))).willReturn(write);
+        //        when - action/behaviour you want to test
+        ResultActions response = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student")
+                                                                    .contentType(MediaType.APPLICATION_JSON)
+                                                                    .content(objectMapper.writeValueAsString(student)));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, CoreMatchers.endsWith("/api/student/writes/abc")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.trackingId", CoreMatchers.is("abc")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state", CoreMatchers.is("PENDING")));
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void givenStudentWithoutName_whenCreateStudent_thenBadRequest() throws Exception {
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/student")
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .content("{\"email\":\"john@cena.com\"}"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(studentWriteQueue).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Full queue is answered with 503 and Retry-After")
+    void givenFullQueue_whenCreateStudent_thenServiceUnavailable() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.given(studentWriteQueue.create(ArgumentMatchers.any(Student.class)))
+                  .willThrow(new TaskRejectedException("Student write queue is full"));
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/student")
+                                                                       .contentType(MediaType.APPLICATION_JSON)
+                                                                       .content("{\"firstName\":\"john\",\"lastName\":\"cena\"}"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, ApiExceptionHandler.RETRY_AFTER_SECONDS));
+    }
+
+    @Test
+    @DisplayName(value = "Unconditional update is queued, conditional update runs inline")
+    void givenUpdates_whenUpdateStudent_thenOnlyUnconditionalQueued() throws Exception {
+        //        given - precondition/setup
+        Student student = new Student(1, "Virat", "Kohli", "virat@kohli.com", 0);
+        BDDMockito.given(studentWriteQueue.update(ArgumentMatchers.any(Student.class)))
+                  .willReturn(new StudentWrite("def", StudentWrite.Type.UPDATE, student));
+        BDDMockito.given(studentService.updateStudent(ArgumentMatchers.any(Student.class), ArgumentMatchers.eq(0L)))
+                  .willReturn(new Student(1, "Virat", "Kohli", "virat@kohli.com", 1));
+        //        when - action/behaviour you want to test
+        ResultActions queued = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.put("/api/student/{id}", 1)
+                                                                  .contentType(MediaType.APPLICATION_JSON)
+                                                                  .content(objectMapper.writeValueAsString(student)));
+        ResultActions inline = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.put("/api/student/{id}", 1)
+                                                                  .header(HttpHeaders.IF_MATCH, "\"0-json\"")
+                                                                  .contentType(MediaType.APPLICATION_JSON)
+                                                                  .content(objectMapper.writeValueAsString(student)));
+        //        then - verify the output
+        queued.andExpect(MockMvcResultMatchers.status().isAccepted())
+              .andExpect(MockMvcResultMatchers.jsonPath("$.trackingId", CoreMatchers.is("def")));
+        inline.andExpect(MockMvcResultMatchers.status().isOk())
+              .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-json\""));
+        BDDMockito.then(studentWriteQueue).should(Mockito.times(1)).update(ArgumentMatchers.any(Student.class));
+    }
+
+    @Test
+    @DisplayName(value = "Status of a write is polled by tracking id")
+    void givenTrackingId_whenGetWrite_thenReturnOutcome() throws Exception {
+        //        given - precondition/setup
+        StudentWrite write = new StudentWrite("abc", StudentWrite.Type.UPDATE, new Student(42, "Virat", "Kohli", "virat@kohli.com", 0));
+        BDDMockito.given(studentWriteQueue.getWrite("abc")).willReturn(Optional.of(write));
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/writes/{trackingId}", "abc"));
+        ResultActions unknown = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/writes/{trackingId}", "nope"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state", CoreMatchers.is("PENDING")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.type", CoreMatchers.is("UPDATE")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.studentId", CoreMatchers.is(42)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email").doesNotExist());
+        unknown.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.export;
+
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName(value = "Student exports stream the table and reuse unchanged snapshots")
+class StudentExporterIntegrationTest {
+
+    @TempDir
+    static Path snapshotDirectory;
+
+    @Autowired
+    private StudentExporter studentExporter;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void exportDirectory(DynamicPropertyRegistry registry) {
+        registry.add("student.export.snapshot-directory", snapshotDirectory::toString);
+    }
+
+    @Test
+    @DisplayName(value = "CSV quotes only fields that need it and leaves nulls empty")
+    void givenAwkwardNames_whenExportCsv_thenQuoted() throws Exception {
+        //        given - precondition/setup
+        Student student = studentService.saveStudent(Student.builder().firstName("Mahendra, Singh").lastName("\"Dhoni\"").build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //        when - action/behaviour you want to test
+        long rows = studentExporter.export(StudentExportFormat.CSV, out);
+        //        then - verify the output
+        List<String> lines = Arrays.asList(new String(out.toByteArray(), StandardCharsets.UTF_8).split("\r\n"));
+        Assertions.assertThat(lines).hasSize((int) rows + 1);
+        Assertions.assertThat(lines.get(0)).isEqualTo("id,firstName,lastName,email,version");
+        Assertions.assertThat(lines).contains(student.getId() + ",\"Mahendra, Singh\",\"\"\"Dhoni\"\"\",,0");
+    }
+
+    @Test
+    @DisplayName(value = "NDJSON holds one student per line, ordered by id")
+    void givenStudents_whenExportNdjson_thenOneObjectPerLine() throws Exception {
+        //        given - precondition/setup
+        Student student = studentService.saveStudent(Student.builder().firstName("Ravindra").lastName("Jadeja")
+                                                            .email("ravindra@jadeja.com").build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //        when - action/behaviour you want to test
+        studentExporter.export(StudentExportFormat.NDJSON, out);
+        //        then - verify the output
+        List<Long> ids = new ArrayList<>();
+        JsonNode exported = null;
+        for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            ids.add(node.path("id").asLong());
+            if (node.path("id").asLong() == student.getId()) {
+                exported = node;
+            }
+        }
+        Assertions.assertThat(ids).isSorted();
+        Assertions.assertThat(exported).isNotNull();
+        Assertions.assertThat(objectMapper.treeToValue(exported, Student.class))
+                  .usingRecursiveComparison().isEqualTo(student);
+    }
+
+    @Test
+    @DisplayName(value = "Snapshot is reused until the table changes and served over HTTP")
+    void givenSnapshot_whenTableUnchanged_thenReusedAndServed() throws Exception {
+        //        given - precondition/setup
+        studentService.saveStudent(Student.builder().firstName("Jasprit").lastName("Bumrah").email("jasprit@bumrah.com").build());
+        Path first = studentExporter.snapshot(StudentExportFormat.CSV);
+        //        when - action/behaviour you want to test
+        Path unchanged = studentExporter.snapshot(StudentExportFormat.CSV);
+        ResponseEntity<byte[]> response = restTemplate.getForEntity("/api/student/export?format=csv&snapshot=true", byte[].class);
+        studentService.saveStudent(Student.builder().firstName("Mohammed").lastName("Shami").email("mohammed@shami.com").build());
+        Path changed = studentExporter.snapshot(StudentExportFormat.CSV);
+        //        then - verify the output
+        Assertions.assertThat(unchanged).isEqualTo(first);
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getHeaders().getContentLength()).isEqualTo(Files.size(first));
+        Assertions.assertThat(response.getBody()).isEqualTo(Files.readAllBytes(first));
+        Assertions.assertThat(changed).isNotEqualTo(first);
+        Assertions.assertThat(new String(Files.readAllBytes(changed), StandardCharsets.UTF_8)).contains("mohammed@shami.com");
+    }
+}
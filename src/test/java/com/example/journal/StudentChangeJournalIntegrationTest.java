@@ -0,0 +1,102 @@
+package com.example.journal;
+
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+@SpringBootTest(properties = {"student.journal.enabled=true", "student.journal.segment-size=1KB", "student.journal.retained-segments=2"})
+@AutoConfigureMockMvc
+@DisplayName(value = "Committed student writes are journaled and served as changes")
+class StudentChangeJournalIntegrationTest {
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentChangeJournal studentChangeJournal;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("student.journal.directory", directory::toString);
+    }
+
+    @Test
+    @DisplayName(value = "Saved, updated and deleted students are served from their offset on")
+    void givenCommittedWrites_whenGetChanges_thenServedInOrder() throws Exception {
+        //        given - precondition/setup
+        long since = studentChangeJournal.getEndOffset();
+        Student student = studentService.saveStudent(Student.builder().firstName("Hardik").lastName("Pandya")
+                                                            .email("hardik@pandya.com").build());
+        studentService.updateStudent(new Student(student.getId(), "Hardik", "Pandya", "kungfu@pandya.com", 0));
+        studentService.deleteStudentById(student.getId());
+        //        when - action/behaviour you want to test
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/student/changes").param("since", String.valueOf(since)))
+                                  .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                                  .andReturn();
+        //        then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+               .andExpect(MockMvcResultMatchers.status().isOk())
+               .andExpect(MockMvcResultMatchers.jsonPath("$[*].type", CoreMatchers.hasItems("SAVED", "UPDATED", "DELETED")))
+               .andExpect(MockMvcResultMatchers.jsonPath("$[0].offset", CoreMatchers.is((int) since)))
+               .andExpect(MockMvcResultMatchers.jsonPath("$[1].student.email", CoreMatchers.is("kungfu@pandya.com")))
+               .andExpect(MockMvcResultMatchers.jsonPath("$[2].student").doesNotExist())
+               .andExpect(MockMvcResultMatchers.jsonPath("$[2].nextOffset", CoreMatchers.is((int) studentChangeJournal.getEndOffset())));
+    }
+
+    @Test
+    @DisplayName(value = "Rolled back saves are never journaled")
+    void givenRolledBackSave_whenJournaled_thenNothingAppended() {
+        //        given - precondition/setup
+        long end = studentChangeJournal.getEndOffset();
+        //        when - action/behaviour you want to test
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            studentService.saveStudent(Student.builder().firstName("Axar").lastName("Patel").email("axar@patel.com").build());
+            status.setRollbackOnly();
+        });
+        //        then - verify the output
+        Assertions.assertThat(studentChangeJournal.getEndOffset()).isEqualTo(end);
+    }
+
+    @Test
+    @DisplayName(value = "Offsets inside a change are rejected and offsets no longer retained are gone")
+    void givenBadOffsets_whenGetChanges_thenRejected() throws Exception {
+        //        given - precondition/setup
+        for (int i = 0; i < 40; i++) {
+            studentService.saveStudent(Student.builder().firstName("Kuldeep").lastName("Yadav")
+                                              .email("kuldeep" + i + "@yadav.com").build());
+        }
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/student/changes").param("since", "0"))
+               .andExpect(MockMvcResultMatchers.status().isGone());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/student/changes")
+                                              .param("since", String.valueOf(studentChangeJournal.getStartOffset() + 1)))
+               .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.journal;
+
+import com.example.entity.Student;
+import com.example.search.StudentSearchIndex;
+import com.example.service.StudentChangedEvent;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@DisplayName(value = "Student Change Journal Test Suite")
+class StudentChangeJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private StudentChangeJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    @DisplayName(value = "Appended changes are read back in order from any of their offsets")
+    void givenAppendedChanges_whenRead_thenReturnedInOrder() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        long saved = journal.append(StudentChangedEvent.saved(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0)));
+        long updated = journal.append(StudentChangedEvent.updated(new Student(1, "Virat", "Kohli", null, 1)));
+        long deleted = journal.append(StudentChangedEvent.deleted(1));
+        //        when - action/behaviour you want to test
+        List<StudentChange> changes = new ArrayList<>();
+        long next = journal.read(saved, 2, changes::add);
+        //        then - verify the output
+        Assertions.assertThat(changes).extracting(StudentChange::getOffset, StudentChange::getType)
+                  .containsExactly(Assertions.tuple(saved, StudentChangedEvent.Type.SAVED),
+                          Assertions.tuple(updated, StudentChangedEvent.Type.UPDATED));
+        Assertions.assertThat(changes.get(0).getNextOffset()).isEqualTo(updated);
+        Assertions.assertThat(changes.get(0).getStudent().getEmail()).isEqualTo("virat@kohli.com");
+        Assertions.assertThat(changes.get(1).getStudent().getEmail()).isNull();
+        Assertions.assertThat(changes.get(1).getStudent().getVersion()).isEqualTo(1L);
+        Assertions.assertThat(next).isEqualTo(deleted);
+        List<StudentChange> rest = new ArrayList<>();
+        Assertions.assertThat(journal.read(next, 10, rest::add)).isEqualTo(journal.getEndOffset());
+        Assertions.assertThat(rest).singleElement()
+                  .satisfies(change -> Assertions.assertThat(change.getStudent()).isNull())
+                  .extracting(StudentChange::getId).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName(value = "Offsets inside a record are rejected")
+    void givenOffsetInsideRecord_whenRead_thenRejected() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        journal.append(StudentChangedEvent.saved(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0)));
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThat(journal.isOffset(3)).isFalse();
+        Assertions.assertThat(journal.isOffset(journal.getEndOffset())).isTrue();
+        Assertions.assertThatThrownBy(() -> journal.read(3, 10, change -> { }))
+                  .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName(value = "Full segments roll over and the oldest beyond retention are deleted")
+    void givenManyChanges_whenAppended_thenSegmentsRolledAndRetained() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 2, false);
+        //        when - action/behaviour you want to test
+        for (int i = 1; i <= 100; i++) {
+            journal.append(StudentChangedEvent.saved(new Student(i, "first" + i, "last" + i, "student" + i + "@example.com", 0)));
+        }
+        //        then - verify the output
+        Assertions.assertThat(segmentFiles()).hasSize(2);
+        Assertions.assertThat(journal.getStartOffset()).isPositive();
+        Assertions.assertThat(journal.isOffset(0)).isFalse();
+        List<Long> ids = new ArrayList<>();
+        journal.replay(change -> ids.add(change.getId()));
+        Assertions.assertThat(ids).isNotEmpty().endsWith(100L);
+        Assertions.assertThat(ids).isSorted().hasSize((int) (100 - ids.get(0) + 1));
+    }
+
+    @Test
+    @DisplayName(value = "A read overtaken by a roll deleting its segment stops at the retained boundary")
+    void givenRollDuringRead_whenRead_thenStopsWhereSegmentWasDeleted() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 1, false);
+        long first = journal.append(StudentChangedEvent.saved(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0)));
+        journal.append(StudentChangedEvent.saved(new Student(2, "Rohit", "Sharma", "rohit@sharma.com", 0)));
+        List<StudentChange> changes = new ArrayList<>();
+        //        when - action/behaviour you want to test
+        long next = journal.read(first, Integer.MAX_VALUE, change -> {
+            changes.add(change);
+            if (changes.size() == 1) {
+                appendUntilRolled();
+            }
+        });
+        //        then - verify the output
+        Assertions.assertThat(changes).hasSize(1);
+        Assertions.assertThat(next).isEqualTo(changes.get(0).getNextOffset()).isLessThan(journal.getStartOffset());
+        Assertions.assertThat(journal.read(first, 10, change -> { })).isEqualTo(first);
+        Assertions.assertThat(journal.isOffset(next)).isFalse();
+    }
+
+    @Test
+    @DisplayName(value = "Reopened journal replays its changes and appends after them")
+    void givenClosedJournal_whenReopened_thenReplayedAndAppended() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        for (int i = 1; i <= 30; i++) {
+            journal.append(StudentChangedEvent.saved(new Student(i, "first" + i, "last" + i, "student" + i + "@example.com", 0)));
+        }
+        long end = journal.getEndOffset();
+        journal.close();
+        //        when - action/behaviour you want to test
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        long appended = journal.append(StudentChangedEvent.deleted(30));
+        //        then - verify the output
+        Assertions.assertThat(appended).isEqualTo(end);
+        List<StudentChange> changes = new ArrayList<>();
+        journal.replay(changes::add);
+        Assertions.assertThat(changes).hasSize(31);
+        Assertions.assertThat(changes.get(29).getStudent().getFirstName()).isEqualTo("first30");
+        Assertions.assertThat(changes.get(30).getType()).isEqualTo(StudentChangedEvent.Type.DELETED);
+    }
+
+    @Test
+    @DisplayName(value = "Torn record at the end is cut off on open")
+    void givenTornRecord_whenReopened_thenCutOff() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        journal.append(StudentChangedEvent.saved(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0)));
+        long end = journal.getEndOffset();
+        journal.close();
+        try (FileChannel segment = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE)) {
+            // a header promising a body whose checksum does not match what was written
+            segment.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 0, 42}), end);
+        }
+        //        when - action/behaviour you want to test
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        journal.append(StudentChangedEvent.deleted(1));
+        //        then - verify the output
+        List<StudentChange> changes = new ArrayList<>();
+        journal.replay(changes::add);
+        Assertions.assertThat(changes).extracting(StudentChange::getType)
+                  .containsExactly(StudentChangedEvent.Type.SAVED, StudentChangedEvent.Type.DELETED);
+    }
+
+    @Test
+    @DisplayName(value = "A directory is used by one journal at a time")
+    void givenOpenJournal_whenOpenedAgain_thenRejected() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThatThrownBy(() -> new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false))
+                  .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName(value = "Replay rebuilds the search index")
+    void givenJournal_whenReplayedIntoIndex_thenIndexRebuilt() throws IOException {
+        //        given - precondition/setup
+        journal = new StudentChangeJournal(directory, SEGMENT_SIZE, 4, false);
+        journal.append(StudentChangedEvent.saved(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0)));
+        journal.append(StudentChangedEvent.saved(new Student(2, "Rohit", "Sharma", "rohit@sharma.com", 0)));
+        journal.append(StudentChangedEvent.updated(new Student(2, "Rohit", "Sharma", "hitman@sharma.com", 1)));
+        journal.append(StudentChangedEvent.deleted(1));
+        StudentSearchIndex index = new StudentSearchIndex(Mockito.mock(StudentService.class));
+        //        when - action/behaviour you want to test
+        journal.replay(change -> index.onStudentChanged(change.toEvent()));
+        //        then - verify the output
+        Assertions.assertThat(index.size()).isEqualTo(1);
+        Assertions.assertThat(index.search("hitman", 10)).extracting(Student::getVersion).containsExactly(1L);
+        Assertions.assertThat(index.search("virat", 10)).isEmpty();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private void appendUntilRolled() {
+        long start = journal.getStartOffset();
+        try {
+            for (long id = 100; journal.getStartOffset() == start; id++) {
+                journal.append(StudentChangedEvent.saved(new Student(id, "Rolling", "Over", id + "@roll.com", 0)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
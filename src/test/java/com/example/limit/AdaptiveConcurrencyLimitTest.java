@@ -0,0 +1,106 @@
+package com.example.limit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayName(value = "Adaptive Concurrency Limit Test Suite")
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName(value = "Requests beyond the limit, or beyond their share of it, are not admitted")
+    void givenLimitInUse_whenTryAcquire_thenRejected() {
+        //        given - precondition/setup
+        AdaptiveConcurrencyLimit limit = limit(4, 1, 10);
+        //        when - action/behaviour you want to test
+        boolean[] admitted = {limit.tryAcquire(1.0), limit.tryAcquire(0.5), limit.tryAcquire(0.5), limit.tryAcquire(1.0),
+                limit.tryAcquire(1.0), limit.tryAcquire(1.0)};
+        //        then - verify the output
+        Assertions.assertThat(admitted).containsExactly(true, true, false, true, true, false);
+        Assertions.assertThat(limit.getInFlight()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName(value = "Fast requests grow a busy limit by one each, up to the maximum")
+    void givenFastRequestsWhileBusy_whenReleased_thenLimitGrows() {
+        //        given - precondition/setup
+        AdaptiveConcurrencyLimit limit = limit(4, 1, 5);
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire(1.0);
+        }
+        //        when - action/behaviour you want to test
+        limit.release(FAST, false, true);
+        limit.release(FAST, false, true);
+        limit.release(FAST, false, true);
+        //        then - verify the output
+        Assertions.assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName(value = "Fast requests do not grow an idle limit")
+    void givenFastRequestsWhileIdle_whenReleased_thenLimitUnchanged() {
+        //        given - precondition/setup
+        AdaptiveConcurrencyLimit limit = limit(10, 1, 20);
+        //        when - action/behaviour you want to test
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(FAST, false, true);
+        }
+        //        then - verify the output
+        Assertions.assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName(value = "A burst of slow or failed requests backs off once per threshold, never below the minimum")
+    void givenSlowRequests_whenReleased_thenLimitBacksOffOncePerThreshold() {
+        //        given - precondition/setup
+        AdaptiveConcurrencyLimit limit = limit(20, 15, 40);
+        //        when - action/behaviour you want to test
+        release(limit, SLOW, false);
+        release(limit, FAST, true);
+        int afterBurst = limit.getLimit();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        release(limit, FAST, true);
+        int afterSecondBurst = limit.getLimit();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        release(limit, SLOW, false);
+        //        then - verify the output
+        Assertions.assertThat(afterBurst).isEqualTo(18);
+        Assertions.assertThat(afterSecondBurst).isEqualTo(16);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName(value = "Unsampled requests give back their slot without moving the limit")
+    void givenUnsampledRequest_whenReleased_thenLimitUnchanged() {
+        //        given - precondition/setup
+        AdaptiveConcurrencyLimit limit = limit(2, 1, 10);
+        limit.tryAcquire(1.0);
+        limit.tryAcquire(1.0);
+        //        when - action/behaviour you want to test
+        limit.release(SLOW, true, false);
+        //        then - verify the output
+        Assertions.assertThat(limit.getLimit()).isEqualTo(2);
+        Assertions.assertThat(limit.getInFlight()).isEqualTo(1);
+    }
+
+    private AdaptiveConcurrencyLimit limit(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, Duration.ofMillis(100), 0.9, clock::get);
+    }
+
+    private static void release(AdaptiveConcurrencyLimit limit, long latencyNanos, boolean failed) {
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(latencyNanos, failed, true);
+        }
+    }
+}
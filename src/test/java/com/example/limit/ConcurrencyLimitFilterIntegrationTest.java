@@ -0,0 +1,46 @@
+package com.example.limit;
+
+import com.example.MockMvcAsync;
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("load-shedding")
+@DisplayName(value = "Student API requests pass through the concurrency limits")
+class ConcurrencyLimitFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "Admitted requests are served and release their slot, and the limits are scraped")
+    void givenLoadShedding_whenGetStudent_thenServedAndLimitsPublished() throws Exception {
+        //        given - precondition/setup
+        Student student = studentService.saveStudent(Student.builder().firstName("Yashasvi").lastName("Jaiswal")
+                                                            .email("yashasvi@jaiswal.com").build());
+        //        when - action/behaviour you want to test
+        MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", student.getId()))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        //        then - verify the output
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+               .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("student_concurrency_limit{class=\"read\"")))
+               .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("student_concurrency_in_flight{class=\"read\",} 0.0")))
+               .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("student_concurrency_rejected_total{class=\"read\",priority=\"bulk\",}")));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+@DisplayName(value = "Concurrency Limit Filter Test Suite")
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdaptiveConcurrencyLimit readLimit;
+    private AdaptiveConcurrencyLimit writeLimit;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        readLimit = new AdaptiveConcurrencyLimit(4, 1, 4, Duration.ofMillis(100), 0.9);
+        writeLimit = new AdaptiveConcurrencyLimit(1, 1, 1, Duration.ofMillis(100), 0.9);
+        filter = new ConcurrencyLimitFilter(readLimit, writeLimit, 0.5, 1, meterRegistry);
+    }
+
+    @Test
+    @DisplayName(value = "Over the limit requests are answered with 503 and Retry-After without reaching the handler")
+    void givenWriteLimitInUse_whenWrite_thenServiceUnavailable() throws Exception {
+        //        given - precondition/setup
+        writeLimit.tryAcquire(1.0);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //        when - action/behaviour you want to test
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/student"), response, chain);
+        //        then - verify the output
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        Assertions.assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        Assertions.assertThat(chain.getRequest()).isNull();
+        Assertions.assertThat(meterRegistry.get("student.concurrency.rejected").tag("class", "write").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName(value = "Bulk listings are shed while single lookups and lookups by ids are still admitted")
+    void givenHalfOfReadLimitInUse_whenBulkAndSingleReads_thenOnlyBulkShed() throws Exception {
+        //        given - precondition/setup
+        readLimit.tryAcquire(1.0);
+        readLimit.tryAcquire(1.0);
+        MockHttpServletResponse listing = new MockHttpServletResponse();
+        MockHttpServletResponse single = new MockHttpServletResponse();
+        MockHttpServletRequest lookup = new MockHttpServletRequest("POST", "/api/student/lookup");
+        MockHttpServletResponse lookedUp = new MockHttpServletResponse();
+        //        when - action/behaviour you want to test
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/student"), listing, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/student/42"), single, new MockFilterChain());
+        filter.doFilter(lookup, lookedUp, new MockFilterChain());
+        //        then - verify the output
+        Assertions.assertThat(listing.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        Assertions.assertThat(single.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        Assertions.assertThat(lookedUp.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        Assertions.assertThat(meterRegistry.get("student.concurrency.rejected").tag("priority", "bulk").counter().count()).isEqualTo(1);
+        Assertions.assertThat(writeLimit.getInFlight()).isZero();
+        Assertions.assertThat(readLimit.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName(value = "An async request holds its slot until the async request completes")
+    void givenAsyncRequest_whenCompleted_thenSlotReleased() throws Exception {
+        //        given - precondition/setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/student/42");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //        when - action/behaviour you want to test
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        int inFlightWhileAsync = readLimit.getInFlight();
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onComplete(null);
+        }
+        //        then - verify the output
+        Assertions.assertThat(inFlightWhileAsync).isEqualTo(1);
+        Assertions.assertThat(readLimit.getInFlight()).isZero();
+    }
+}
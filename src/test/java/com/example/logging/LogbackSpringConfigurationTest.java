@@ -0,0 +1,74 @@
+package com.example.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.LogFile;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.logback.LogbackLoggingSystem;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Path;
+
+@DisplayName(value = "logback-spring.xml Test Suite")
+class LogbackSpringConfigurationTest {
+
+    private static final String CONFIG = "classpath:logback-spring.xml";
+
+    private final LogbackLoggingSystem loggingSystem = new LogbackLoggingSystem(getClass().getClassLoader());
+
+    @TempDir
+    Path logs;
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("LOG_FILE");
+        System.clearProperty("LOG_PATH");
+        initialize(new MockEnvironment());
+    }
+
+    @Test
+    @DisplayName(value = "logging.file.name adds Boot's rolling file appender behind an async appender")
+    void givenLogFileName_whenConfigured_thenFileWrittenAsync() {
+        //        given - precondition/setup
+        String file = logs.resolve("students.log").toString();
+        MockEnvironment environment = new MockEnvironment().withProperty("logging.file.name", file);
+        //        when - action/behaviour you want to test
+        initialize(environment);
+        //        then - verify the output
+        AsyncAppender async = (AsyncAppender) root().getAppender("ASYNC_FILE");
+        Assertions.assertThat(async).isNotNull();
+        Assertions.assertThat(async.isNeverBlock()).isTrue();
+        Assertions.assertThat(((RollingFileAppender<?>) async.getAppender("FILE")).getFile()).isEqualTo(file);
+        Assertions.assertThat(root().getAppender("ASYNC_CONSOLE")).isNotNull();
+    }
+
+    @Test
+    @DisplayName(value = "Without logging.file.* only the console is written")
+    void givenNoLogFile_whenConfigured_thenConsoleOnly() {
+        //        given - precondition/setup
+        MockEnvironment environment = new MockEnvironment();
+        //        when - action/behaviour you want to test
+        initialize(environment);
+        //        then - verify the output
+        Assertions.assertThat(root().getAppender("ASYNC_FILE")).isNull();
+        Assertions.assertThat(root().getAppender("ASYNC_CONSOLE")).isNotNull();
+    }
+
+    private void initialize(MockEnvironment environment) {
+        loggingSystem.cleanUp();
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), CONFIG, LogFile.get(environment));
+    }
+
+    private static Logger root() {
+        return ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    }
+}
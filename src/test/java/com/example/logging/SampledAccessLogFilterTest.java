@@ -0,0 +1,93 @@
+package com.example.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletResponse;
+
+@DisplayName(value = "Sampled Access Log Filter Test Suite")
+class SampledAccessLogFilterTest {
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(SampledAccessLogFilter.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        events.start();
+        accessLogger.addAppender(events);
+        request = new MockHttpServletRequest("GET", "/api/student/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/student/{id}");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(events);
+    }
+
+    @Test
+    @DisplayName(value = "Sampled request is logged with its uri template")
+    void givenFullSampling_whenRequest_thenLogUriTemplate() throws Exception {
+        //        given - precondition/setup
+        SampledAccessLogFilter filter = new SampledAccessLogFilter(1.0, 500);
+        //        when - action/behaviour you want to test
+        filter.doFilter(request, response, new MockFilterChain());
+        //        then - verify the output
+        Assertions.assertThat(events.list).hasSize(1);
+        Assertions.assertThat(events.list.get(0).getFormattedMessage())
+                  .startsWith("method=GET uri=/api/student/{id} status=200 durationMs=")
+                  .doesNotContain("42");
+    }
+
+    @Test
+    @DisplayName(value = "Unsampled successful request is not logged")
+    void givenNoSampling_whenFastRequest_thenNothingLogged() throws Exception {
+        //        given - precondition/setup
+        SampledAccessLogFilter filter = new SampledAccessLogFilter(0.0, 500);
+        //        when - action/behaviour you want to test
+        filter.doFilter(request, response, new MockFilterChain());
+        //        then - verify the output
+        Assertions.assertThat(events.list).isEmpty();
+    }
+
+    @Test
+    @DisplayName(value = "Server errors are logged regardless of sampling")
+    void givenNoSampling_whenServerError_thenLogged() throws Exception {
+        //        given - precondition/setup
+        SampledAccessLogFilter filter = new SampledAccessLogFilter(0.0, 500);
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        //        when - action/behaviour you want to test
+        filter.doFilter(request, response, new MockFilterChain());
+        //        then - verify the output
+        Assertions.assertThat(events.list).extracting(ILoggingEvent::getFormattedMessage)
+                  .singleElement().asString().contains("status=503");
+    }
+
+    @Test
+    @DisplayName(value = "Async request is logged once it completes")
+    void givenAsyncRequest_whenCompleted_thenLogged() throws Exception {
+        //        given - precondition/setup
+        SampledAccessLogFilter filter = new SampledAccessLogFilter(1.0, 500);
+        request.setAsyncSupported(true);
+        //        when - action/behaviour you want to test
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        Assertions.assertThat(events.list).isEmpty();
+        request.getAsyncContext().complete();
+        //        then - verify the output
+        Assertions.assertThat(events.list).hasSize(1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.lookup;
+
+import com.example.MockMvcAsync;
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest(properties = "student.coalescing.enabled=true")
+@AutoConfigureMockMvc
+@DisplayName(value = "Student lookups by id are served through the coalescer")
+class StudentLookupCoalescerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "Known ids are answered with the tagged student, unknown ones with 404")
+    void givenCoalescing_whenGetStudentById_thenServedFromBatch() throws Exception {
+        //        given - precondition/setup
+        Student student = studentService.saveStudent(Student.builder().firstName("Shubman").lastName("Gill")
+                                                            .email("shubman@gill.com").build());
+        //        when - action/behaviour you want to test
+        ResultActions found = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", student.getId()));
+        ResultActions missing = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", Long.MAX_VALUE));
+        //        then - verify the output
+        found.andExpect(MockMvcResultMatchers.status().isOk())
+             .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+             .andExpect(MockMvcResultMatchers.jsonPath("$.email", CoreMatchers.is("shubman@gill.com")));
+        missing.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.lookup;
+
+import com.example.config.CacheConfig;
+import com.example.entity.Student;
+import com.example.routing.ReadYourWrites;
+import com.example.service.StudentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName(value = "Student Lookup Coalescer Test Suite")
+class StudentLookupCoalescerTest {
+
+    @Mock
+    private StudentService studentService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Cache studentsById = new ConcurrentMapCache(CacheConfig.STUDENTS_BY_ID);
+
+    private StudentLookupCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        coalescer.close();
+    }
+
+    @Test
+    @DisplayName(value = "Lookups of a batch are read with one call and repeated ids share a result")
+    void givenLookupsWithinWindow_whenBatchFull_thenReadOnce() throws Exception {
+        //        given - precondition/setup
+        coalescer = coalescer(new SyncTaskExecutor(), Duration.ofHours(1), 3);
+        Student one = student(1);
+        Student two = student(2);
+        BDDMockito.given(studentService.getStudentsByIds(ArgumentMatchers.anyCollection())).willReturn(Arrays.asList(one, two));
+        //        when - action/behaviour you want to test
+        CompletableFuture<Optional<Student>> first = coalescer.getStudentById(1);
+        CompletableFuture<Optional<Student>> repeated = coalescer.getStudentById(1);
+        CompletableFuture<Optional<Student>> second = coalescer.getStudentById(2);
+        CompletableFuture<Optional<Student>> unknown = coalescer.getStudentById(3);
+        //        then - verify the output
+        Assertions.assertThat(repeated).isSameAs(first);
+        Assertions.assertThat(first.getNow(null)).containsSame(one);
+        Assertions.assertThat(second.getNow(null)).containsSame(two);
+        Assertions.assertThat(unknown.getNow(null)).isEmpty();
+        BDDMockito.then(studentService).should().getStudentsByIds(new HashSet<>(Arrays.asList(1L, 2L, 3L)));
+        BDDMockito.then(studentService).shouldHaveNoMoreInteractions();
+        Assertions.assertThat(meterRegistry.get("student.lookup.coalesced").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("student.lookup.batch.size").summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName(value = "A batch that is not full is read once its window closes")
+    void givenSingleLookup_whenWindowCloses_thenRead() throws Exception {
+        //        given - precondition/setup
+        coalescer = coalescer(new SyncTaskExecutor(), Duration.ofMillis(5), 100);
+        Student one = student(1);
+        BDDMockito.given(studentService.getStudentsByIds(Collections.singleton(1L))).willReturn(Collections.singletonList(one));
+        //        when - action/behaviour you want to test
+        Optional<Student> found = coalescer.getStudentById(1).get(5, TimeUnit.SECONDS);
+        //        then - verify the output
+        Assertions.assertThat(found).containsSame(one);
+    }
+
+    @Test
+    @DisplayName(value = "Cached ids are answered at once without joining a batch")
+    void givenCachedIds_whenLookedUp_thenAnsweredFromCache() {
+        //        given - precondition/setup
+        coalescer = coalescer(task -> {
+            throw new AssertionError("no batch expected");
+        }, Duration.ofHours(1), 1);
+        Student one = student(1);
+        studentsById.put(1L, one);
+        studentsById.put(2L, null);
+        //        when - action/behaviour you want to test
+        CompletableFuture<Optional<Student>> cached = coalescer.getStudentById(1);
+        CompletableFuture<Optional<Student>> cachedAbsent = coalescer.getStudentById(2);
+        //        then - verify the output
+        Assertions.assertThat(cached.getNow(null)).containsSame(one);
+        Assertions.assertThat(cachedAbsent.getNow(null)).isEmpty();
+        BDDMockito.then(studentService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "A lookup never joins a batch that has already been sent")
+    void givenSentBatch_whenSameIdLookedUp_thenReadAgain() {
+        //        given - precondition/setup
+        coalescer = coalescer(new SyncTaskExecutor(), Duration.ofHours(1), 1);
+        BDDMockito.given(studentService.getStudentsByIds(Collections.singleton(1L))).willReturn(Collections.singletonList(student(1)));
+        //        when - action/behaviour you want to test
+        CompletableFuture<Optional<Student>> first = coalescer.getStudentById(1);
+        CompletableFuture<Optional<Student>> second = coalescer.getStudentById(1);
+        //        then - verify the output
+        Assertions.assertThat(second).isNotSameAs(first);
+        BDDMockito.then(studentService).should(BDDMockito.times(2)).getStudentsByIds(Collections.singleton(1L));
+    }
+
+    @Test
+    @DisplayName(value = "Lookups that must read from the primary are batched apart and read from the primary")
+    void givenPrimaryRequiredLookup_whenBatched_thenReadApartOnPrimary() {
+        //        given - precondition/setup
+        coalescer = coalescer(new SyncTaskExecutor(), Duration.ofHours(1), 2);
+        List<Boolean> primaryRequired = new CopyOnWriteArrayList<>();
+        BDDMockito.given(studentService.getStudentsByIds(ArgumentMatchers.anyCollection())).willAnswer(invocation -> {
+            primaryRequired.add(ReadYourWrites.isPrimaryRequired());
+            return Collections.emptyList();
+        });
+        List<CompletableFuture<Optional<Student>>> lookups = new CopyOnWriteArrayList<>();
+        //        when - action/behaviour you want to test
+        lookups.add(coalescer.getStudentById(1));
+        ReadYourWrites.decorate(() -> {
+            lookups.add(coalescer.getStudentById(1));
+            lookups.add(coalescer.getStudentById(2));
+        }, true).run();
+        //        then - verify the output
+        Assertions.assertThat(lookups.get(1)).isNotSameAs(lookups.get(0));
+        Assertions.assertThat(lookups.get(0)).isNotDone();
+        Assertions.assertThat(lookups.get(1)).isDone();
+        Assertions.assertThat(primaryRequired).containsExactly(true);
+        Assertions.assertThat(ReadYourWrites.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName(value = "Failed and rejected batches fail all of their lookups")
+    void givenFailingBatches_whenLookedUp_thenLookupsFail() {
+        //        given - precondition/setup
+        coalescer = coalescer(new SyncTaskExecutor(), Duration.ofHours(1), 1);
+        BDDMockito.given(studentService.getStudentsByIds(ArgumentMatchers.anyCollection())).willThrow(new IllegalStateException("database down"));
+        StudentLookupCoalescer rejecting = coalescer(task -> {
+            throw new TaskRejectedException("queue full");
+        }, Duration.ofHours(1), 1);
+        //        when - action/behaviour you want to test
+        CompletableFuture<Optional<Student>> failed = coalescer.getStudentById(1);
+        CompletableFuture<Optional<Student>> rejected = rejecting.getStudentById(1);
+        rejecting.close();
+        //        then - verify the output
+        Assertions.assertThatThrownBy(failed::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(rejected::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(TaskRejectedException.class);
+    }
+
+    private StudentLookupCoalescer coalescer(TaskExecutor executor, Duration window, int maxBatchSize) {
+        return new StudentLookupCoalescer(studentService, studentsById, executor, window, maxBatchSize, meterRegistry);
+    }
+
+    private static Student student(long id) {
+        return Student.builder().id(id).firstName("first" + id).lastName("last" + id).email("student" + id + "@example.com").build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.metrics;
+
+import com.example.MockMvcAsync;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DisplayName(value = "Student API metrics Test Suite")
+class StudentApiMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName(value = "Request, in-flight and repository metrics are scraped from /actuator/prometheus")
+    void givenStudentRequests_whenScrapePrometheus_thenReturnRequestAndRepositoryMetrics() throws Exception {
+        //        given - precondition/setup
+        MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", 42L));
+        MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student").param("limit", "10"));
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("uri=\"/api/student/{id}\"")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("quantile=\"0.99\"")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("http_server_requests_active_seconds_active_count{method=\"GET\",uri=\"/api/student/{id}\"")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("method=\"findByIdGreaterThanOrderByIdAsc\"")));
+    }
+
+    @Test
+    @DisplayName(value = "Connection pool gauges and acquire time percentiles are scraped from /actuator/prometheus")
+    void givenStudentRequests_whenScrapePrometheus_thenReturnConnectionPoolMetrics() throws Exception {
+        //        given - precondition/setup
+        MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", 42L));
+        //        when - action/behaviour you want to test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"));
+        //        then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("hikaricp_connections_active{pool=\"student\"")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("hikaricp_connections_idle{pool=\"student\"")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("hikaricp_connections_pending{pool=\"student\"")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("hikaricp_connections_acquire_seconds_bucket{")))
+                .andExpect(MockMvcResultMatchers.content().string(CoreMatchers.containsString("hikaricp_connections_acquire_seconds{pool=\"student\",quantile=\"0.99\"")));
+    }
+}
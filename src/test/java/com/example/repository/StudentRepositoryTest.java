@@ -6,10 +6,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @DataJpaTest
 @DisplayName(value = "Student Repository Test Suite")
@@ -17,6 +23,9 @@ class StudentRepositoryTest {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Student student;
 
     @Test
@@ -67,7 +76,7 @@ class StudentRepositoryTest {
     @DisplayName(value = "Test Find By Email")
     void givenEmail_whenFindByEmail_thenReturnStudent() {
 //        given - precondition/setup
-        Student s1 = new Student(1, "Virat", "Kohli", "virat@kohli.com");
+        Student s1 = new Student(1, "Virat", "Kohli", "virat@kohli.com", 0);
         studentRepository.save(s1);
 //        when - action or behaviour to be tested
         Student dbStudent = studentRepository.findByEmail(s1.getEmail()).get();
@@ -76,19 +85,109 @@ class StudentRepositoryTest {
         Assertions.assertThat(dbStudent.getEmail()).isEqualTo(s1.getEmail());
     }
 
+    @Test
+    @DisplayName(value = "Test Find Existing Emails")
+    void givenEmails_whenFindExistingEmails_thenReturnOnlyTakenEmails() {
+        studentRepository.save(Student.builder().firstName("John").lastName("Cena").email("john@cena.com").build());
+        List<String> existingEmails = studentRepository.findExistingEmails(Arrays.asList("john@cena.com", "roman@reigns.com"));
+        Assertions.assertThat(existingEmails).containsExactly("john@cena.com");
+    }
+
     @Test
     @DisplayName(value = "Test Delete By ID")
     void givenStudentId_whenDeleteById_thenDeleteStudent() {
-        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com");
-        studentRepository.save(s);
+        Student s = studentRepository.save(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0));
         studentRepository.deleteById(s.getId());
         Optional<Student> optionalStudent = studentRepository.findById(s.getId());
         Assertions.assertThat(optionalStudent).isEmpty();
     }
 
+    @Test
+    @DisplayName(value = "Test Update By ID")
+    void givenStudentId_whenUpdateById_thenUpdateSingleRow() {
+        Student s = studentRepository.save(Student.builder().firstName("Virat").lastName("Kohli").email("virat@kohli.com").build());
+        int updatedRows = studentRepository.updateById(s.getId(), "Virat", "Kohli", "virat@bcci.com");
+        Assertions.assertThat(updatedRows).isEqualTo(1);
+        Assertions.assertThat(studentRepository.findById(s.getId())).get().extracting(Student::getEmail).isEqualTo("virat@bcci.com");
+        Assertions.assertThat(studentRepository.updateById(s.getId() + 1, "Rohit", "Sharma", "rohit@bcci.com")).isZero();
+    }
+
+    @Test
+    @DisplayName(value = "Test Update By ID bumps the version")
+    void givenStudent_whenUpdateById_thenVersionIncremented() {
+        Student s = studentRepository.saveAndFlush(Student.builder().firstName("Virat").lastName("Kohli").email("virat@kohli.com").build());
+        Assertions.assertThat(s.getVersion()).isZero();
+        studentRepository.updateById(s.getId(), "Virat", "Kohli", "virat@bcci.com");
+        Assertions.assertThat(studentRepository.findById(s.getId())).get().extracting(Student::getVersion).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName(value = "Test Update By ID and Version")
+    void givenStudentVersion_whenUpdateByIdAndVersion_thenOnlyCurrentVersionUpdated() {
+        Student s = studentRepository.saveAndFlush(Student.builder().firstName("Virat").lastName("Kohli").email("virat@kohli.com").build());
+        Assertions.assertThat(studentRepository.updateByIdAndVersion(s.getId(), 0, "Virat", "Kohli", "virat@bcci.com")).isEqualTo(1);
+        Assertions.assertThat(studentRepository.updateByIdAndVersion(s.getId(), 0, "Virat", "Kohli", "virat@icc.com")).isZero();
+        Assertions.assertThat(studentRepository.findById(s.getId())).get().extracting(Student::getEmail).isEqualTo("virat@bcci.com");
+    }
+
+    @Test
+    @DisplayName(value = "Test List Version changes on insert, update and delete")
+    void givenStudents_whenChanged_thenListVersionChanges() {
+        Student s1 = studentRepository.saveAndFlush(Student.builder().firstName("John").lastName("Cena").email("john@cena.com").build());
+        StudentListVersion initial = studentRepository.findListVersionByIdGreaterThan(0);
+        Assertions.assertThat(initial.getCount()).isEqualTo(1);
+        Assertions.assertThat(studentRepository.findListVersionByIdGreaterThan(0)).isEqualTo(initial);
+        Student s2 = studentRepository.saveAndFlush(Student.builder().firstName("Roman").lastName("Reigns").email("roman@reigns.com").build());
+        StudentListVersion inserted = studentRepository.findListVersionByIdGreaterThan(0);
+        Assertions.assertThat(inserted).isNotEqualTo(initial);
+        studentRepository.updateById(s1.getId(), "John", "Cena", "john@wwe.com");
+        StudentListVersion updated = studentRepository.findListVersionByIdGreaterThan(0);
+        Assertions.assertThat(updated).isNotEqualTo(inserted);
+        studentRepository.deleteStudentById(s2.getId());
+        Assertions.assertThat(studentRepository.findListVersionByIdGreaterThan(0)).isNotEqualTo(updated);
+    }
+
+    @Test
+    @DisplayName(value = "Test List Version changes when a deleted row is replaced by one with a lower id")
+    void givenStudents_whenDeletedAndLowerIdInserted_thenListVersionChanges() {
+        Student s1 = studentRepository.saveAndFlush(Student.builder().firstName("John").lastName("Cena").email("john@cena.com").build());
+        Student s2 = studentRepository.saveAndFlush(Student.builder().firstName("Roman").lastName("Reigns").email("roman@reigns.com").build());
+        Student s3 = studentRepository.saveAndFlush(Student.builder().firstName("Seth").lastName("Rollins").email("seth@rollins.com").build());
+        studentRepository.deleteStudentById(s1.getId());
+        StudentListVersion before = studentRepository.findListVersionByIdGreaterThan(0);
+        // another instance's pooled id block can hand out ids below the current maximum
+        studentRepository.deleteStudentById(s2.getId());
+        entityManager.createNativeQuery("insert into students (id, email, first_name, last_name, version) values (?, ?, ?, ?, 0)")
+                     .setParameter(1, s1.getId())
+                     .setParameter(2, "dean@ambrose.com")
+                     .setParameter(3, "Dean")
+                     .setParameter(4, "Ambrose")
+                     .executeUpdate();
+        StudentListVersion after = studentRepository.findListVersionByIdGreaterThan(0);
+        Assertions.assertThat(after.getCount()).isEqualTo(before.getCount());
+        Assertions.assertThat(after.getMaxId()).isEqualTo(s3.getId());
+        Assertions.assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName(value = "Test Delete Student By ID returning row count")
+    void givenStudentId_whenDeleteStudentById_thenReturnDeletedRows() {
+        Student s = studentRepository.save(Student.builder().firstName("Virat").lastName("Kohli").email("virat@kohli.com").build());
+        Assertions.assertThat(studentRepository.deleteStudentById(s.getId())).isEqualTo(1);
+        Assertions.assertThat(studentRepository.deleteStudentById(s.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName(value = "Test Save Student with duplicate email")
+    void givenExistingEmail_whenSaveAndFlush_thenThrowDataIntegrityViolation() {
+        studentRepository.save(Student.builder().firstName("Virat").lastName("Kohli").email("virat@kohli.com").build());
+        Student duplicate = Student.builder().firstName("Rohit").lastName("Sharma").email("virat@kohli.com").build();
+        org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> studentRepository.saveAndFlush(duplicate));
+    }
+
     @Test
     void givenFirstNameAndLastName_whenFindByJpqlIndexedParams_thenReturnStudent() {
-        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com");
+        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com", 0);
         studentRepository.save(s);
         Student byJpqlIndexedParams = studentRepository.findByJpqlIndexedParams("Virat", "Kohli");
         Assertions.assertThat(byJpqlIndexedParams).isNotNull();
@@ -96,7 +195,7 @@ class StudentRepositoryTest {
 
     @Test
     void givenFirstNameAndLastName_whenFindByJpqlNamedParams_thenReturnStudent() {
-        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com");
+        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com", 0);
         studentRepository.save(s);
         Student byJpqlIndexedParams = studentRepository.findByJpqlNamedParams(s.getFirstName(), s.getLastName());
         Assertions.assertThat(byJpqlIndexedParams).isNotNull();
@@ -104,7 +203,7 @@ class StudentRepositoryTest {
 
     @Test
     void givenFirstNameAndLastName_whenFindByJpqlNativeQueryIndexedParams_thenReturnStudent() {
-        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com");
+        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com", 0);
         studentRepository.save(s);
         Student byJpqlIndexedParams = studentRepository.findByJpqlNativeQueryIndexedParams(s.getFirstName(), s.getEmail());
         Assertions.assertThat(byJpqlIndexedParams).isNotNull();
@@ -112,9 +211,73 @@ class StudentRepositoryTest {
 
     @Test
     void givenFirstNameAndLastName_whenFindByJpqlNativeQueryNamedParams_thenReturnStudent() {
-        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com");
+        Student s = new Student(1, "Virat", "Kohli", "virat@kohli.com", 0);
         studentRepository.save(s);
         Student byJpqlIndexedParams = studentRepository.findByJpqlNativeQueryNamedParams(s.getLastName(), s.getEmail());
         Assertions.assertThat(byJpqlIndexedParams).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName(value = "Test Keyset Page")
+    void givenStudents_whenFindByIdGreaterThan_thenReturnNextPageInIdOrder() {
+        Student s1 = studentRepository.save(Student.builder().firstName("John").lastName("Cena").email("john@cena.com").build());
+        Student s2 = studentRepository.save(Student.builder().firstName("Roman").lastName("Reigns").email("roman@reigns.com").build());
+        Student s3 = studentRepository.save(Student.builder().firstName("Seth").lastName("Rollins").email("seth@rollins.com").build());
+        List<Student> page = studentRepository.findByIdGreaterThanOrderByIdAsc(s1.getId(), PageRequest.of(0, 1));
+        Assertions.assertThat(page).extracting(Student::getId).containsExactly(s2.getId());
+        List<Student> lastPage = studentRepository.findByIdGreaterThanOrderByIdAsc(s2.getId(), PageRequest.of(0, 10));
+        Assertions.assertThat(lastPage).extracting(Student::getId).containsExactly(s3.getId());
+    }
+
+    @Test
+    @DisplayName(value = "Test Stream All")
+    void givenStudents_whenStreamByIdGreaterThan_thenReturnRemainingInIdOrder() {
+        Student s1 = studentRepository.save(Student.builder().firstName("John").lastName("Cena").email("john@cena.com").build());
+        Student s2 = studentRepository.save(Student.builder().firstName("Roman").lastName("Reigns").email("roman@reigns.com").build());
+        Student s3 = studentRepository.save(Student.builder().firstName("Seth").lastName("Rollins").email("seth@rollins.com").build());
+        try (Stream<Student> students = studentRepository.streamByIdGreaterThanOrderByIdAsc(s1.getId())) {
+            Assertions.assertThat(students.map(Student::getId)).containsExactly(s2.getId(), s3.getId());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "Test Sparse Fields Page")
+    void givenFields_whenFindFieldsByIdGreaterThan_thenReturnOnlySelectedColumns() {
+        Student s1 = studentRepository.save(Student.builder().firstName("John").lastName("Cena").email("john@cena.com").build());
+        Student s2 = studentRepository.save(Student.builder().firstName("Roman").lastName("Reigns").email("roman@reigns.com").build());
+        entityManager.flush();
+        entityManager.clear();
+        List<Map<String, Object>> page = studentRepository.findFieldsByIdGreaterThan(EnumSet.of(StudentField.ID, StudentField.EMAIL), s1.getId(), 10);
+        Assertions.assertThat(page).hasSize(1);
+        Assertions.assertThat(page.get(0)).containsOnlyKeys("id", "email")
+                  .containsEntry("id", s2.getId())
+                  .containsEntry("email", s2.getEmail());
+        Assertions.assertThat(entityManager.unwrap(org.hibernate.Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName(value = "Test Sparse Fields Stream")
+    void givenFields_whenStreamFieldsByIdGreaterThan_thenReturnRemainingInIdOrder() {
+        Student s1 = studentRepository.save(Student.builder().firstName("John").lastName("Cena").email("john@cena.com").build());
+        Student s2 = studentRepository.save(Student.builder().firstName("Roman").lastName("Reigns").email("roman@reigns.com").build());
+        Student s3 = studentRepository.save(Student.builder().firstName("Seth").lastName("Rollins").email("seth@rollins.com").build());
+        try (Stream<Map<String, Object>> rows = studentRepository.streamFieldsByIdGreaterThan(EnumSet.of(StudentField.ID, StudentField.LAST_NAME), s1.getId())) {
+            Assertions.assertThat(rows).extracting(row -> row.get("lastName")).containsExactly(s2.getLastName(), s3.getLastName());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "Test finder queries use an index")
+    void givenFinderQueries_whenExplain_thenPlanUsesIndex() {
+        Assertions.assertThat(explain("select * from students where first_name='Virat' and last_name='Kohli'"))
+                  .containsIgnoringCase("idx_students_first_name_last_name");
+        Assertions.assertThat(explain("select * from students where first_name='Virat' and email='virat@kohli.com'"))
+                  .containsIgnoringCase(Student.EMAIL_UNIQUE_CONSTRAINT);
+        Assertions.assertThat(explain("select * from students where last_name='Kohli' and email='virat@kohli.com'"))
+                  .containsIgnoringCase(Student.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("explain " + sql).getSingleResult());
+    }
+}
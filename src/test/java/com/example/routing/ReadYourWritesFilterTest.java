@@ -0,0 +1,78 @@
+package com.example.routing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.Cookie;
+import java.time.Duration;
+
+@DisplayName(value = "Read Your Writes Filter Test Suite")
+class ReadYourWritesFilterTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), () -> NOW);
+
+    @Test
+    @DisplayName(value = "A write is served from the primary and stamps the client's last write")
+    void givenWrite_whenFiltered_thenPrimaryAndCookieSet() throws Exception {
+        //        given - precondition/setup
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean[] primaryRequired = new boolean[1];
+        //        when - action/behaviour you want to test
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/student/42"), response, recording(primaryRequired));
+        //        then - verify the output
+        Assertions.assertThat(primaryRequired[0]).isTrue();
+        Assertions.assertThat(ReadYourWrites.isPrimaryRequired()).isFalse();
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+        Assertions.assertThat(cookie).isNotNull();
+        Assertions.assertThat(cookie.getValue()).isEqualTo(String.valueOf(NOW));
+        Assertions.assertThat(cookie.getMaxAge()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName(value = "Reads stay on the primary within the window after the client's write and leave it afterwards")
+    void givenLastWriteCookie_whenRead_thenPrimaryOnlyWithinWindow() throws Exception {
+        //        given - precondition/setup
+        MockHttpServletRequest recent = new MockHttpServletRequest("GET", "/api/student/42");
+        recent.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, String.valueOf(NOW - 4_999)));
+        MockHttpServletRequest old = new MockHttpServletRequest("GET", "/api/student/42");
+        old.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, String.valueOf(NOW - 5_000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean[] recentPrimary = new boolean[1];
+        boolean[] oldPrimary = new boolean[1];
+        //        when - action/behaviour you want to test
+        filter.doFilter(recent, response, recording(recentPrimary));
+        filter.doFilter(old, new MockHttpServletResponse(), recording(oldPrimary));
+        //        then - verify the output
+        Assertions.assertThat(recentPrimary[0]).isTrue();
+        Assertions.assertThat(oldPrimary[0]).isFalse();
+        Assertions.assertThat(response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE)).isNull();
+    }
+
+    @Test
+    @DisplayName(value = "Lookups by ids and reads without a valid last write may go to a replica")
+    void givenReadsWithoutWrite_whenFiltered_thenReplicaAllowed() throws Exception {
+        //        given - precondition/setup
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/api/student");
+        malformed.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, "soon"));
+        MockHttpServletResponse lookupResponse = new MockHttpServletResponse();
+        boolean[] lookupPrimary = new boolean[1];
+        boolean[] malformedPrimary = new boolean[1];
+        //        when - action/behaviour you want to test
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/student/lookup"), lookupResponse, recording(lookupPrimary));
+        filter.doFilter(malformed, new MockHttpServletResponse(), recording(malformedPrimary));
+        //        then - verify the output
+        Assertions.assertThat(lookupPrimary[0]).isFalse();
+        Assertions.assertThat(malformedPrimary[0]).isFalse();
+        Assertions.assertThat(lookupResponse.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE)).isNull();
+    }
+
+    private static FilterChain recording(boolean[] primaryRequired) {
+        return (request, response) -> primaryRequired[0] = ReadYourWrites.isPrimaryRequired();
+    }
+}
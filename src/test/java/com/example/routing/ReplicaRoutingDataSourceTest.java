@@ -0,0 +1,113 @@
+package com.example.routing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Arrays;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName(value = "Replica Routing DataSource Test Suite")
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica0;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replica0Connection;
+
+    @Mock
+    private Connection replica1Connection;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaRoutingDataSource(primary, Arrays.asList(replica0, replica1));
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName(value = "Read-only transactions take turns on the replicas")
+    void givenReadOnlyTransaction_whenGetConnection_thenReplicasRoundRobin() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.given(replica0.getConnection()).willReturn(replica0Connection);
+        BDDMockito.given(replica1.getConnection()).willReturn(replica1Connection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //        when - action/behaviour you want to test
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        Connection third = dataSource.getConnection();
+        //        then - verify the output
+        Assertions.assertThat(first).isSameAs(replica0Connection);
+        Assertions.assertThat(second).isSameAs(replica1Connection);
+        Assertions.assertThat(third).isSameAs(replica0Connection);
+    }
+
+    @Test
+    @DisplayName(value = "Read-write transactions and work outside a transaction run on the primary")
+    void givenNoReadOnlyTransaction_whenGetConnection_thenPrimary() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.given(primary.getConnection()).willReturn(primaryConnection);
+        //        when - action/behaviour you want to test
+        Connection connection = dataSource.getConnection();
+        //        then - verify the output
+        Assertions.assertThat(connection).isSameAs(primaryConnection);
+        BDDMockito.then(replica0).shouldHaveNoInteractions();
+        BDDMockito.then(replica1).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName(value = "Read-only transactions that must read the client's writes run on the primary, also on executor threads")
+    void givenPrimaryRequired_whenReadOnlyOnOtherThread_thenPrimary() throws Exception {
+        //        given - precondition/setup
+        BDDMockito.given(primary.getConnection()).willReturn(primaryConnection);
+        Connection[] connection = new Connection[1];
+        Runnable task;
+        ReadYourWrites.setPrimaryRequired(true);
+        try {
+            task = ReadYourWrites.decorate(() -> {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+                try {
+                    connection[0] = dataSource.getConnection();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+                }
+            });
+        } finally {
+            ReadYourWrites.setPrimaryRequired(false);
+        }
+        //        when - action/behaviour you want to test
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+        //        then - verify the output
+        Assertions.assertThat(connection[0]).isSameAs(primaryConnection);
+        BDDMockito.then(replica0).shouldHaveNoInteractions();
+    }
+}
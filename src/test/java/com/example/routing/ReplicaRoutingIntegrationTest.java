@@ -0,0 +1,128 @@
+package com.example.routing;
+
+import com.example.MockMvcAsync;
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.servlet.http.Cookie;
+
+/**
+ * Two embedded H2 databases stand in for the primary and a replica that has not caught up: rows written directly to
+ * the replica are only visible through reads, rows written through the service only to the primary and to reads
+ * that must see them. The lookup caches are on, as in production.
+ */
+@SpringBootTest(properties = {
+        "student.replicas.enabled=true",
+        "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+        "student.replicas.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL})
+@AutoConfigureMockMvc
+@DisplayName(value = "Student reads are routed to the replica, writes and reads after a write to the primary")
+class ReplicaRoutingIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static JdbcTemplate primary;
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // before the context starts, the search index reads all students from the replica on startup
+    @BeforeAll
+    static void createReplicaSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema-h2.sql")).execute(dataSource);
+        replica = new JdbcTemplate(dataSource);
+        primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    }
+
+    @Test
+    @DisplayName(value = "Service reads see the replica's rows and writes land on the primary only")
+    void givenReplica_whenReadAndWrite_thenRoutedByTransaction() {
+        //        given - precondition/setup
+        replica.update("insert into students (id, email, first_name, last_name, version) values (?, ?, ?, ?, 0)",
+                1_000_001L, "replica@only.com", "Ravindra", "Jadeja");
+        //        when - action/behaviour you want to test
+        Student saved = studentService.saveStudent(Student.builder().firstName("Axar").lastName("Patel")
+                                                          .email("axar@patel.com").build());
+        //        then - verify the output
+        Assertions.assertThat(studentService.getStudentByEmail("replica@only.com")).isPresent();
+        Assertions.assertThat(studentService.getStudentByEmail(saved.getEmail())).isEmpty();
+        Assertions.assertThat(studentService.getStudentsAfter(saved.getId() - 1, 1)).extracting(Student::getId)
+                  .doesNotContain(saved.getId());
+        Assertions.assertThat(primary.queryForObject("select count(*) from students where email = ?", Integer.class,
+                "axar@patel.com")).isEqualTo(1);
+        Assertions.assertThat(replica.queryForObject("select count(*) from students where email = ?", Integer.class,
+                "axar@patel.com")).isZero();
+        Assertions.assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "student-replica-0").timer())
+                  .isNotNull();
+    }
+
+    @Test
+    @DisplayName(value = "A client reads its own write from the primary, another client does not")
+    void givenClientWrote_whenGetStudent_thenReadsOwnWrite() throws Exception {
+        //        given - precondition/setup
+        MvcResult created = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student")
+                                                                                .contentType(MediaType.APPLICATION_JSON)
+                                                                                .content("{\"firstName\":\"Kuldeep\",\"lastName\":\"Yadav\",\"email\":\"kuldeep@yadav.com\"}"))
+                                         .andExpect(MockMvcResultMatchers.status().isCreated())
+                                         .andReturn();
+        Cookie lastWrite = created.getResponse().getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+        long id = primary.queryForObject("select id from students where email = ?", Long.class, "kuldeep@yadav.com");
+        //        when - action/behaviour you want to test
+        ResultActions sameClient = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", id).cookie(lastWrite));
+        ResultActions otherClient = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student")
+                                                                                        .param("after", String.valueOf(id - 1))
+                                                                                        .param("limit", "1"));
+        //        then - verify the output
+        Assertions.assertThat(lastWrite).isNotNull();
+        sameClient.andExpect(MockMvcResultMatchers.status().isOk());
+        otherClient.andExpect(MockMvcResultMatchers.status().isOk())
+                   .andExpect(MockMvcResultMatchers.content().string(Matchers.not(Matchers.containsString("kuldeep@yadav.com"))));
+    }
+
+    @Test
+    @DisplayName(value = "A stale replica read is not cached, so the client that deleted a student does not get it back")
+    void givenClientDeleted_whenOtherClientReadsLaggingReplica_thenDeleterGetsNotFound() throws Exception {
+        //        given - precondition/setup
+        long id = 2_000_001L;
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("insert into students (id, email, first_name, last_name, version) values (?, ?, ?, ?, 0)",
+                    id, "lagging@replica.com", "Mohammed", "Shami");
+        }
+        studentService.deleteStudentById(id);
+        Cookie lastWrite = new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis()));
+        //        when - action/behaviour you want to test
+        ResultActions otherClient = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", id));
+        ResultActions sameClient = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.get("/api/student/{id}", id).cookie(lastWrite));
+        //        then - verify the output
+        otherClient.andExpect(MockMvcResultMatchers.status().isOk());
+        sameClient.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
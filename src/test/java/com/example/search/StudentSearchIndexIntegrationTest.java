@@ -0,0 +1,54 @@
+package com.example.search;
+
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@DisplayName(value = "Student Search Index follows committed writes")
+class StudentSearchIndexIntegrationTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName(value = "Saved, updated and deleted students are reflected in search")
+    void givenCommittedWrites_whenSearch_thenIndexUpToDate() {
+        //        given - precondition/setup
+        Student student = studentService.saveStudent(Student.builder().firstName("Shubman").lastName("Gill")
+                                                            .email("shubman@gill.com").build());
+        Assertions.assertThat(studentSearchIndex.search("shubm", 10)).extracting(Student::getId).containsExactly(student.getId());
+        //        when - action/behaviour you want to test
+        studentService.updateStudent(new Student(student.getId(), "Shubman", "Gil", "shubman@gill.com", 0));
+        //        then - verify the output
+        Assertions.assertThat(studentSearchIndex.search("gil", 10)).extracting(Student::getVersion).containsExactly(1L);
+        studentService.deleteStudentById(student.getId());
+        Assertions.assertThat(studentSearchIndex.search("shubman", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName(value = "Rolled back saves never reach the index")
+    void givenRolledBackSave_whenSearch_thenNotFound() {
+        //        given - precondition/setup
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        //        when - action/behaviour you want to test
+        transaction.executeWithoutResult(status -> {
+            studentService.saveStudent(Student.builder().firstName("Ishan").lastName("Kishan").email("ishan@kishan.com").build());
+            status.setRollbackOnly();
+        });
+        //        then - verify the output
+        Assertions.assertThat(studentSearchIndex.search("kishan", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.search;
+
+import com.example.entity.Student;
+import com.example.service.StudentChangedEvent;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName(value = "Student Search Index Test Suite")
+class StudentSearchIndexTest {
+
+    @Mock
+    private StudentService studentService;
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StudentSearchIndex(studentService);
+        index.put(new Student(1, "Virat", "Kohli", "virat@kohli.com", 0));
+        index.put(new Student(2, "Rohit", "Sharma", "rohit.sharma@bcci.in", 0));
+        index.put(new Student(3, "Virender", "Sehwag", "viru@sehwag.com", 0));
+        index.put(new Student(4, "Vir", "Das", "vir@das.com", 0));
+    }
+
+    @Test
+    @DisplayName(value = "Startup load indexes every student streamed by the service")
+    void givenStudentsInDatabase_whenLoaded_thenSearchable() {
+        //        given - precondition/setup
+        StudentSearchIndex loaded = new StudentSearchIndex(studentService);
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Student> action = invocation.getArgument(1);
+            action.accept(new Student(7, "Jasprit", "Bumrah", "jasprit@bumrah.com", 0));
+            return null;
+        }).given(studentService).streamStudentsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any());
+        //        when - action/behaviour you want to test
+        loaded.afterSingletonsInstantiated();
+        //        then - verify the output
+        Assertions.assertThat(loaded.size()).isEqualTo(1);
+        Assertions.assertThat(loaded.search("bum", 10)).extracting(Student::getId).containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName(value = "Prefix query ranks exact terms first")
+    void givenPrefix_whenSearch_thenExactTermBeforePrefixes() {
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThat(index.search("vir", 10)).extracting(Student::getId).containsExactly(4L, 1L, 3L);
+    }
+
+    @Test
+    @DisplayName(value = "Every word of the query has to match")
+    void givenTwoWords_whenSearch_thenStudentsMatchingBoth() {
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThat(index.search("Vir  Koh", 10)).extracting(Student::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName(value = "Typos and swapped letters still match")
+    void givenTypo_whenSearch_thenFuzzyMatch() {
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThat(index.search("kolhi", 10)).extracting(Student::getId).containsExactly(1L);
+        Assertions.assertThat(index.search("shrma", 10)).extracting(Student::getId).containsExactly(2L);
+        Assertions.assertThat(index.search("sehwg", 10)).extracting(Student::getId).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName(value = "Email is searchable as a whole and by its words")
+    void givenEmail_whenSearch_thenMatchEmailTerms() {
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThat(index.search("rohit.sharma@b", 10)).extracting(Student::getId).containsExactly(2L);
+        Assertions.assertThat(index.search("bcci", 10)).extracting(Student::getId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName(value = "Updates and deletes replace the indexed terms")
+    void givenChanges_whenSearch_thenOnlyCurrentTermsMatch() {
+        //        given - precondition/setup
+        index.onStudentChanged(StudentChangedEvent.updated(new Student(1, "Virat", "Anushka", "virat@kohli.com", 1)));
+        index.onStudentChanged(StudentChangedEvent.deleted(2));
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThat(index.search("anushka", 10)).extracting(Student::getId).containsExactly(1L);
+        Assertions.assertThat(index.search("kohli", 10)).extracting(Student::getId).containsExactly(1L);
+        Assertions.assertThat(index.search("sharma", 10)).isEmpty();
+        Assertions.assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName(value = "Blank query and limit")
+    void givenBlankQueryOrLimit_whenSearch_thenBounded() {
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThat(index.search("   ", 10)).isEmpty();
+        Assertions.assertThat(index.search("v", 2)).hasSize(2);
+    }
+
+    @Test
+    void givenStrings_whenEditDistance_thenCountSwapsAsOneEdit() {
+        Assertions.assertThat(StudentSearchIndex.editDistance("kohli", "kolhi", 2)).isEqualTo(1);
+        Assertions.assertThat(StudentSearchIndex.editDistance("sharma", "shrma", 2)).isEqualTo(1);
+        Assertions.assertThat(StudentSearchIndex.editDistance("virat", "rohit", 2)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.service.impl;
+
+import com.example.entity.Student;
+import com.example.exception.ResourceAlreadyExistsException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ResourceVersionMismatchException;
+import com.example.service.ReactiveStudentService;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest(properties = "student.reactive.enabled=true")
+@DisplayName(value = "Reactive Student Service Test Suite")
+class ReactiveStudentServiceImplTest {
+
+    @Autowired
+    private ReactiveStudentService reactiveStudentService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "Reactive and JPA inserts share the table without id collisions")
+    void givenInterleavedInserts_whenSaveStudent_thenIdsAreUnique() {
+        //        given - precondition/setup
+        Set<Long> ids = new HashSet<>();
+        //        when - action/behaviour you want to test
+        for (int i = 0; i < Student.ID_ALLOCATION_SIZE + 5; i++) {
+            ids.add(studentService.saveStudent(student("jpa" + i)).getId());
+            ids.add(reactiveStudentService.saveStudent(student("r2dbc" + i)).block().getId());
+        }
+        //        then - verify the output
+        Assertions.assertThat(ids).hasSize((Student.ID_ALLOCATION_SIZE + 5) * 2);
+    }
+
+    @Test
+    @DisplayName(value = "Student saved through JPA is read through R2DBC")
+    void givenJpaStudent_whenGetStudentById_thenReturnStudent() {
+        //        given - precondition/setup
+        Student saved = studentService.saveStudent(student("shared"));
+        //        when - action/behaviour you want to test
+        Student found = reactiveStudentService.getStudentById(saved.getId()).block();
+        //        then - verify the output
+        Assertions.assertThat(found).isNotNull();
+        Assertions.assertThat(found.getEmail()).isEqualTo(saved.getEmail());
+        Assertions.assertThat(reactiveStudentService.getStudentByEmail(saved.getEmail()).block()).isNotNull();
+    }
+
+    @Test
+    @DisplayName(value = "Reactive keyset page returns students after the given id in id order")
+    void givenStudents_whenGetStudentsAfter_thenReturnPage() {
+        //        given - precondition/setup
+        Student first = reactiveStudentService.saveStudent(student("page1")).block();
+        Student second = reactiveStudentService.saveStudent(student("page2")).block();
+        //        when - action/behaviour you want to test
+        List<Student> page = reactiveStudentService.getStudentsAfter(first.getId(), 1).collectList().block();
+        //        then - verify the output
+        Assertions.assertThat(page).extracting(Student::getId).containsExactly(second.getId());
+    }
+
+    @Test
+    @DisplayName(value = "Reactive save with duplicate email")
+    void givenExistingEmail_whenSaveStudent_thenThrowException() {
+        //        given - precondition/setup
+        reactiveStudentService.saveStudent(student("duplicate")).block();
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class,
+                () -> reactiveStudentService.saveStudent(student("duplicate")).block());
+    }
+
+    @Test
+    @DisplayName(value = "Reactive save violating another constraint is not reported as a duplicate email")
+    void givenMissingName_whenSaveStudent_thenThrowIntegrityViolation() {
+        //        given - precondition/setup
+        Student student = student("nameless");
+        student.setFirstName(null);
+        //        when - action/behaviour you want to test
+        Throwable thrown = Assertions.catchThrowable(() -> reactiveStudentService.saveStudent(student).block());
+        //        then - verify the output
+        Assertions.assertThat(thrown).isInstanceOf(DataIntegrityViolationException.class)
+                  .isNotInstanceOf(ResourceAlreadyExistsException.class);
+    }
+
+    @Test
+    @DisplayName(value = "Reactive bulk save rolls back every insert when one fails")
+    void givenDuplicateInBatch_whenSaveStudents_thenNothingSaved() {
+        //        given - precondition/setup
+        List<Student> students = List.of(student("bulk1"), student("bulk2"), student("bulk1"));
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class,
+                () -> reactiveStudentService.saveStudents(students).blockLast());
+        //        then - verify the output
+        Assertions.assertThat(reactiveStudentService.getStudentByEmail("bulk2@reactive.com").block()).isNull();
+    }
+
+    @Test
+    @DisplayName(value = "Reactive conditional update of a stale version")
+    void givenStaleVersion_whenUpdateStudent_thenThrowException() {
+        //        given - precondition/setup
+        Student saved = reactiveStudentService.saveStudent(student("versioned")).block();
+        Student current = reactiveStudentService.getStudentById(saved.getId()).block();
+        reactiveStudentService.updateStudent(current, current.getVersion()).block();
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceVersionMismatchException.class,
+                () -> reactiveStudentService.updateStudent(current, current.getVersion() - 1).block());
+    }
+
+    @Test
+    @DisplayName(value = "Reactive update and delete of a missing student")
+    void givenMissingStudent_whenUpdateOrDelete_thenThrowException() {
+        //        given - precondition/setup
+        Student missing = student("missing");
+        missing.setId(Long.MAX_VALUE);
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> reactiveStudentService.updateStudent(missing).block());
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> reactiveStudentService.deleteStudentById(missing.getId()).block());
+    }
+
+    private static Student student(String name) {
+        return Student.builder().firstName(name).lastName("reactive").email(name + "@reactive.com").build();
+    }
+}
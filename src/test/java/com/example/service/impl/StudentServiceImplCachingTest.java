@@ -0,0 +1,158 @@
+package com.example.service.impl;
+
+import com.example.config.CacheConfig;
+import com.example.entity.Student;
+import com.example.exception.ResourceNotFoundException;
+import com.example.repository.StudentRepository;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.BDDMockito.*;
+
+@SpringBootTest
+@DisplayName(value = "Student Service cache Test Suite")
+class StudentServiceImplCachingTest {
+
+    @MockBean
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.STUDENTS_BY_ID).clear();
+        cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL).clear();
+        student = Student.builder().id(1).firstName("john").lastName("cena").email("john@cena.com").build();
+    }
+
+    @Test
+    @DisplayName(value = "Repeated Get Student By Id is served from the cache")
+    void givenCachedStudent_whenGetStudentByIdTwice_thenRepositoryHitOnce() {
+        //        given - precondition/setup
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
+        //        when - action/behaviour you want to test
+        studentService.getStudentById(student.getId());
+        Optional<Student> cached = studentService.getStudentById(student.getId());
+        //        then - verify the output
+        verify(studentRepository, times(1)).findById(student.getId());
+        Assertions.assertThat(cached).contains(student);
+    }
+
+    @Test
+    @DisplayName(value = "Repeated Get Student By Email is served from the cache")
+    void givenCachedStudent_whenGetStudentByEmailTwice_thenRepositoryHitOnce() {
+        //        given - precondition/setup
+        given(studentRepository.findByEmail(student.getEmail())).willReturn(Optional.of(student));
+        //        when - action/behaviour you want to test
+        studentService.getStudentByEmail(student.getEmail());
+        Optional<Student> cached = studentService.getStudentByEmail(student.getEmail());
+        //        then - verify the output
+        verify(studentRepository, times(1)).findByEmail(student.getEmail());
+        Assertions.assertThat(cached).contains(student);
+    }
+
+    @Test
+    @DisplayName(value = "Update Student replaces the cached entry")
+    void givenCachedStudent_whenUpdateStudent_thenCacheHoldsUpdatedStudent() {
+        //        given - precondition/setup
+        Student updated = Student.builder().id(1).firstName("john").lastName("cena").email("john@wwe.com").version(1).build();
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student), Optional.of(updated));
+        given(studentRepository.updateById(updated.getId(), updated.getFirstName(), updated.getLastName(), updated.getEmail())).willReturn(1);
+        studentService.getStudentById(student.getId());
+        //        when - action/behaviour you want to test
+        studentService.updateStudent(updated);
+        Optional<Student> afterUpdate = studentService.getStudentById(student.getId());
+        //        then - verify the output
+        Assertions.assertThat(afterUpdate).contains(updated);
+    }
+
+    @Test
+    @DisplayName(value = "Update Students leaves the cached entries alone when the batch rolls back")
+    void givenCachedStudent_whenUpdateStudentsRollsBack_thenCacheHoldsCommittedStudent() {
+        //        given - precondition/setup
+        Student updated = Student.builder().id(1).firstName("john").lastName("cena").email("john@wwe.com").version(1).build();
+        Student missing = Student.builder().id(2).firstName("roman").lastName("reigns").email("roman@reigns.com").build();
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student), Optional.of(updated));
+        given(studentRepository.updateById(updated.getId(), updated.getFirstName(), updated.getLastName(), updated.getEmail())).willReturn(1);
+        given(studentRepository.updateById(missing.getId(), missing.getFirstName(), missing.getLastName(), missing.getEmail())).willReturn(0);
+        studentService.getStudentById(student.getId());
+        //        when - action/behaviour you want to test
+        Assertions.assertThatThrownBy(() -> studentService.updateStudents(Arrays.asList(updated, missing)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        Optional<Student> cached = studentService.getStudentById(student.getId());
+        //        then - verify the output
+        Assertions.assertThat(cached).contains(student);
+    }
+
+    @Test
+    @DisplayName(value = "Delete Student evicts the cached entry")
+    void givenCachedStudent_whenDeleteStudent_thenNextGetHitsRepository() {
+        //        given - precondition/setup
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
+        given(studentRepository.deleteStudentById(student.getId())).willReturn(1);
+        studentService.getStudentById(student.getId());
+        //        when - action/behaviour you want to test
+        studentService.deleteStudentById(student.getId());
+        given(studentRepository.findById(student.getId())).willReturn(Optional.empty());
+        Optional<Student> afterDelete = studentService.getStudentById(student.getId());
+        //        then - verify the output
+        Assertions.assertThat(afterDelete).isEmpty();
+    }
+
+    @Test
+    @DisplayName(value = "Get Students By Ids only queries the ids that are not cached")
+    void givenOneCachedStudent_whenGetStudentsByIds_thenRepositoryQueriedForTheRest() {
+        //        given - precondition/setup
+        Student other = Student.builder().id(2).firstName("roman").lastName("reigns").email("roman@reigns.com").build();
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
+        given(studentRepository.findAllById(Collections.singleton(other.getId()))).willReturn(Collections.singletonList(other));
+        studentService.getStudentById(student.getId());
+        //        when - action/behaviour you want to test
+        List<Student> students = studentService.getStudentsByIds(Arrays.asList(student.getId(), other.getId()));
+        Optional<Student> cached = studentService.getStudentById(other.getId());
+        //        then - verify the output
+        Assertions.assertThat(students).containsExactly(student, other);
+        Assertions.assertThat(cached).contains(other);
+        verify(studentRepository, never()).findById(other.getId());
+    }
+
+    @Test
+    @DisplayName(value = "Save Students caches the saved students and keeps the other cached entries")
+    void givenCachedStudent_whenSaveStudents_thenSavedCachedAndOthersKept() {
+        //        given - precondition/setup
+        Student saved = Student.builder().id(2).firstName("roman").lastName("reigns").email("roman@reigns.com").build();
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
+        given(studentRepository.findByEmail(saved.getEmail())).willReturn(Optional.empty());
+        given(studentRepository.saveAll(anyList())).willReturn(Collections.singletonList(saved));
+        studentService.getStudentById(student.getId());
+        studentService.getStudentByEmail(saved.getEmail());
+        //        when - action/behaviour you want to test
+        studentService.saveStudents(Collections.singletonList(saved));
+        Optional<Student> other = studentService.getStudentById(student.getId());
+        Optional<Student> cached = studentService.getStudentById(saved.getId());
+        //        then - verify the output
+        Assertions.assertThat(other).contains(student);
+        Assertions.assertThat(cached).contains(saved);
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL).get(saved.getEmail())).isNull();
+        verify(studentRepository, times(1)).findById(student.getId());
+        verify(studentRepository, never()).findById(saved.getId());
+    }
+}
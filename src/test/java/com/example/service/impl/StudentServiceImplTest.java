@@ -3,7 +3,10 @@ package com.example.service.impl;
 import com.example.entity.Student;
 import com.example.exception.ResourceAlreadyExistsException;
 import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ResourceVersionMismatchException;
+import com.example.repository.StudentField;
 import com.example.repository.StudentRepository;
+import com.example.service.StudentChangedEvent;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,11 +15,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.atLeastOnce;
@@ -26,6 +42,12 @@ import static org.mockito.Mockito.mockingDetails;
 class StudentServiceImplTest {
     @Mock
     private StudentRepository studentRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CacheManager cacheManager;
     @InjectMocks
     private StudentServiceImpl studentService;
 
@@ -41,13 +63,14 @@ class StudentServiceImplTest {
     void givenStudent_whenSaveStudent_thenReturnSavedStudent() {
 //        given - precondition or setup
         student.setId(1);
-        given(studentRepository.findByEmail(student.getEmail())).willReturn(Optional.empty());
-        given(studentRepository.save(student)).willReturn(student);
+        given(studentRepository.saveAndFlush(student)).willReturn(student);
 //        when - action or behaviour to be tested
         Student savedStudent = studentService.saveStudent(student);
 //        then - verify result of action/behaviour tested
-        verify(studentRepository, atLeastOnce()).findByEmail(student.getEmail());
-        verify(studentRepository, atMost(1)).save(student);
+        verify(studentRepository, never()).findByEmail(student.getEmail());
+        verify(studentRepository, times(1)).saveAndFlush(student);
+        verify(eventPublisher).publishEvent(argThat((StudentChangedEvent event) ->
+                event.getType() == StudentChangedEvent.Type.SAVED && event.getStudent() == student));
         Assertions.assertThat(savedStudent).isNotNull();
         System.out.println(mockingDetails(studentRepository).printInvocations());
     }
@@ -56,13 +79,75 @@ class StudentServiceImplTest {
     @DisplayName(value = "JUnit Test Case for Save Student with duplicate email")
     void givenExistingEmail_whenSaveStudent_thenThrowException() {
         //        given - precondition/setup
-        given(studentRepository.findByEmail(student.getEmail())).willReturn(Optional.of(student));
+        given(studentRepository.saveAndFlush(student)).willThrow(duplicateEmailViolation());
         //        when - action/behaviour you want to test
-        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> {
+        ResourceAlreadyExistsException exception = org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> {
             studentService.saveStudent(student);
         });
 //        then - verify output of action
-        verify(studentRepository, never()).save(any(Student.class));
+        Assertions.assertThat(exception.getMessage()).contains(student.getEmail());
+        verify(studentRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Save Student violating another constraint")
+    void givenOtherConstraintViolation_whenSaveStudent_thenPropagateException() {
+        //        given - precondition/setup
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("NULL not allowed for column FIRST_NAME");
+        given(studentRepository.saveAndFlush(student)).willThrow(violation);
+        //        when - action/behaviour you want to test
+        DataIntegrityViolationException exception = org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+            studentService.saveStudent(student);
+        });
+        //        then - verify the output
+        Assertions.assertThat(exception).isSameAs(violation);
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Bulk Save Students in chunks")
+    void givenManyStudents_whenSaveStudents_thenSaveInChunks() {
+        //        given - precondition/setup
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < StudentServiceImpl.BULK_CHUNK_SIZE * 2 + 1; i++) {
+            students.add(Student.builder().firstName("john").lastName("cena").email("john" + i + "@cena.com").build());
+        }
+        given(studentRepository.findExistingEmails(anyCollection())).willReturn(new ArrayList<>());
+        given(studentRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        //        when - action/behaviour you want to test
+        List<Student> savedStudents = studentService.saveStudents(students);
+        //        then - verify the output
+        verify(studentRepository, times(3)).findExistingEmails(anyCollection());
+        verify(studentRepository, times(3)).saveAll(anyList());
+        verify(studentRepository, times(3)).flush();
+        verify(studentRepository, never()).findByEmail(anyString());
+        Assertions.assertThat(savedStudents).hasSize(students.size());
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Bulk Save Students with an existing email")
+    void givenExistingEmail_whenSaveStudents_thenThrowException() {
+        //        given - precondition/setup
+        given(studentRepository.findExistingEmails(anyCollection())).willReturn(Arrays.asList(student.getEmail()));
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> {
+            studentService.saveStudents(Arrays.asList(student));
+        });
+        //        then - verify the output
+        verify(studentRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Bulk Save Students with a repeated email")
+    void givenRepeatedEmail_whenSaveStudents_thenThrowException() {
+        //        given - precondition/setup
+        Student duplicate = Student.builder().firstName("johnny").lastName("cena").email(student.getEmail()).build();
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceAlreadyExistsException.class, () -> {
+            studentService.saveStudents(Arrays.asList(student, duplicate));
+        });
+        //        then - verify the output
+        verify(studentRepository, never()).findExistingEmails(anyCollection());
+        verify(studentRepository, never()).saveAll(anyList());
     }
 
     //    Junit test for
@@ -98,6 +183,65 @@ class StudentServiceImplTest {
         Assertions.assertThat(allStudents).isEmpty();
     }
 
+    @Test
+    @DisplayName(value = "JUnit Test Case for Get Students keyset page")
+    void givenAfterIdAndLimit_whenGetStudentsAfter_thenReturnPage() {
+        //        given - precondition/setup
+        given(studentRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 2))).willReturn(Arrays.asList(student, student));
+        //        when - action/behaviour you want to test
+        List<Student> page = studentService.getStudentsAfter(10L, 2);
+        //        then - verify the output
+        verify(studentRepository, never()).findAll();
+        Assertions.assertThat(page).hasSize(2);
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Stream All Students")
+    void givenStudents_whenStreamStudentsAfter_thenEachStudentIsDetachedAfterAction() {
+        //        given - precondition/setup
+        Student s2 = Student.builder().firstName("roman").lastName("reigns").email("roman@reigns.com").build();
+        given(studentRepository.streamByIdGreaterThanOrderByIdAsc(0L)).willReturn(Stream.of(student, s2));
+        List<Student> seen = new ArrayList<>();
+        //        when - action/behaviour you want to test
+        studentService.streamStudentsAfter(0L, seen::add);
+        //        then - verify the output
+        Assertions.assertThat(seen).containsExactly(student, s2);
+        verify(entityManager).detach(student);
+        verify(entityManager).detach(s2);
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Get Student Fields Page")
+    void givenFields_whenGetStudentFieldsAfter_thenReturnRows() {
+        //        given - precondition/setup
+        Set<StudentField> fields = EnumSet.of(StudentField.ID, StudentField.EMAIL);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 4L);
+        row.put("email", student.getEmail());
+        given(studentRepository.findFieldsByIdGreaterThan(fields, 3L, 10)).willReturn(Collections.singletonList(row));
+        //        when - action/behaviour you want to test
+        List<Map<String, Object>> rows = studentService.getStudentFieldsAfter(fields, 3L, 10);
+        //        then - verify the output
+        Assertions.assertThat(rows).containsExactly(row);
+        verify(studentRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Stream Student Fields")
+    void givenFields_whenStreamStudentFieldsAfter_thenPassEveryRow() {
+        //        given - precondition/setup
+        Set<StudentField> fields = EnumSet.of(StudentField.ID);
+        Map<String, Object> r1 = Collections.singletonMap("id", 1L);
+        Map<String, Object> r2 = Collections.singletonMap("id", 2L);
+        given(studentRepository.streamFieldsByIdGreaterThan(fields, 0L)).willReturn(Stream.of(r1, r2));
+        List<Map<String, Object>> seen = new ArrayList<>();
+        //        when - action/behaviour you want to test
+        studentService.streamStudentFieldsAfter(fields, 0L, seen::add);
+        //        then - verify the output
+        Assertions.assertThat(seen).containsExactly(r1, r2);
+        verifyNoInteractions(entityManager);
+    }
+
     //    Junit test for
     @Test
     void givenStudentId_whenGetStudentById_thenReturnStudent() {
@@ -112,25 +256,80 @@ class StudentServiceImplTest {
         System.out.println(mockingDetails(studentRepository).printInvocations());
     }
 
+    @Test
+    @DisplayName(value = "JUnit Test Case for Get Students By Ids")
+    void givenIds_whenGetStudentsByIds_thenReturnStudentsInRequestedOrder() {
+        //        given - precondition/setup
+        ConcurrentMapCache cache = new ConcurrentMapCache("students");
+        Student cached = Student.builder().id(2).firstName("roman").lastName("reigns").email("roman@reigns.com").build();
+        cache.put(2L, cached);
+        student.setId(1);
+        given(cacheManager.getCache("students")).willReturn(cache);
+        given(studentRepository.findAllById(new LinkedHashSet<>(Arrays.asList(3L, 1L)))).willReturn(Collections.singletonList(student));
+        //        when - action/behaviour you want to test
+        List<Student> students = studentService.getStudentsByIds(Arrays.asList(3L, 2L, 1L, 2L));
+        //        then - verify the output
+        Assertions.assertThat(students).containsExactly(cached, student);
+        Assertions.assertThat(cache.get(1L).get()).isEqualTo(student);
+        // unknown ids are remembered as absent
+        Assertions.assertThat(cache.get(3L)).isNotNull();
+        Assertions.assertThat(cache.get(3L).get()).isNull();
+    }
+
     @Test
     @DisplayName(value = "JUnit Test Case for Update Student")
     void givenStudent_whenUpdateStudent_thenReturnUpdatedStudent() {
         //        given - precondition/setup
-        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
-        given(studentRepository.save(student)).willReturn(student);
+        Student reloaded = Student.builder().id(student.getId()).firstName(student.getFirstName()).lastName(student.getLastName())
+                                  .email(student.getEmail()).version(1).build();
+        given(studentRepository.updateById(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail())).willReturn(1);
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(reloaded));
         //        when - action/behaviour you want to test
         Student updateStudent = studentService.updateStudent(student);
         //        then - verify the output
-        verify(studentRepository, atLeastOnce()).save(student);
+        verify(studentRepository, never()).save(student);
         Assertions.assertThat(updateStudent).isNotNull();
+        Assertions.assertThat(updateStudent.getVersion()).isEqualTo(1);
         System.out.println(mockingDetails(studentRepository).printInvocations());
     }
 
+    @Test
+    @DisplayName(value = "JUnit Test Case for Conditional Update Student")
+    void givenCurrentVersion_whenUpdateStudent_thenReturnNextVersion() {
+        //        given - precondition/setup
+        given(studentRepository.updateByIdAndVersion(student.getId(), 3L, student.getFirstName(), student.getLastName(), student.getEmail())).willReturn(1);
+        //        when - action/behaviour you want to test
+        Student updateStudent = studentService.updateStudent(student, 3L);
+        //        then - verify the output
+        Assertions.assertThat(updateStudent.getVersion()).isEqualTo(4);
+        verify(studentRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Conditional Update Student with stale version")
+    void givenStaleVersion_whenUpdateStudent_thenThrowException() {
+        //        given - precondition/setup
+        given(studentRepository.updateByIdAndVersion(student.getId(), 3L, student.getFirstName(), student.getLastName(), student.getEmail())).willReturn(0);
+        given(studentRepository.existsById(student.getId())).willReturn(true);
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceVersionMismatchException.class, () -> studentService.updateStudent(student, 3L));
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Conditional Update of a missing Student")
+    void givenMissingStudent_whenConditionalUpdateStudent_thenThrowException() {
+        //        given - precondition/setup
+        given(studentRepository.updateByIdAndVersion(student.getId(), 3L, student.getFirstName(), student.getLastName(), student.getEmail())).willReturn(0);
+        given(studentRepository.existsById(student.getId())).willReturn(false);
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> studentService.updateStudent(student, 3L));
+    }
+
     @Test
     @DisplayName(value = "JUnit Test Case for Update Student Negative Scenario")
     void givenNonExistingStudent_whenUpdateStudent_thenThrowException() {
         //        given - precondition/setup
-        given(studentRepository.findById(student.getId())).willReturn(Optional.empty());
+        given(studentRepository.updateById(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail())).willReturn(0);
         //        when - action/behaviour you want to test
         org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, ()->{
             studentService.updateStudent(student);
@@ -143,9 +342,30 @@ class StudentServiceImplTest {
     @Test
     void givenId_whenDeleteStudentById_thenDeleteStudent() {
         //        given - precondition/setup
-            given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
+        given(studentRepository.deleteStudentById(student.getId())).willReturn(1);
         //        when - action/behaviour you want to test
-
+        studentService.deleteStudentById(student.getId());
         //        then - verify the output
+        verify(studentRepository, times(1)).deleteStudentById(student.getId());
+        verify(studentRepository, never()).findById(anyLong());
+        verify(eventPublisher).publishEvent(argThat((StudentChangedEvent event) ->
+                event.getType() == StudentChangedEvent.Type.DELETED && event.getId() == student.getId()));
+    }
+
+    @Test
+    @DisplayName(value = "JUnit Test Case for Delete Student Negative Scenario")
+    void givenNonExistingId_whenDeleteStudentById_thenThrowException() {
+        //        given - precondition/setup
+        given(studentRepository.deleteStudentById(student.getId())).willReturn(0);
+        //        when - action/behaviour you want to test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            studentService.deleteStudentById(student.getId());
+        });
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static DataIntegrityViolationException duplicateEmailViolation() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_STUDENTS_EMAIL_INDEX_F ON PUBLIC.STUDENTS(EMAIL)\""));
     }
-}
\ No newline at end of file
+}
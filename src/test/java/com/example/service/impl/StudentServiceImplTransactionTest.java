@@ -0,0 +1,108 @@
+package com.example.service.impl;
+
+import com.example.config.CacheConfig;
+import com.example.entity.Student;
+import com.example.repository.StudentRepository;
+import com.example.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.BDDMockito.*;
+
+@SpringBootTest
+@DisplayName(value = "Student Service transaction boundary Test Suite")
+class StudentServiceImplTransactionTest {
+
+    @MockBean
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.STUDENTS_BY_ID).clear();
+        student = Student.builder().id(1).firstName("john").lastName("cena").email("john@cena.com").build();
+    }
+
+    @Test
+    @DisplayName(value = "Reads run in a read-only transaction without flushing or snapshots")
+    void givenRead_whenGetStudentById_thenReadOnlyTransaction() {
+        //        given - precondition/setup
+        List<Object> observed = new ArrayList<>();
+        given(studentRepository.findById(student.getId())).willAnswer(invocation -> {
+            Session session = entityManager.unwrap(Session.class);
+            observed.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            observed.add(session.getHibernateFlushMode());
+            observed.add(session.isDefaultReadOnly());
+            return Optional.of(student);
+        });
+        //        when - action/behaviour you want to test
+        studentService.getStudentById(student.getId());
+        //        then - verify the output
+        Assertions.assertThat(observed).containsExactly(true, FlushMode.MANUAL, true);
+    }
+
+    @Test
+    @DisplayName(value = "Writes run in a single read-write transaction")
+    void givenWrite_whenUpdateStudent_thenReadWriteTransaction() {
+        //        given - precondition/setup
+        List<Boolean> observed = new ArrayList<>();
+        given(studentRepository.updateById(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail()))
+                .willAnswer(invocation -> {
+                    observed.add(TransactionSynchronizationManager.isActualTransactionActive());
+                    observed.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                    return 1;
+                });
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
+        //        when - action/behaviour you want to test
+        studentService.updateStudent(student);
+        //        then - verify the output
+        Assertions.assertThat(observed).containsExactly(true, false);
+    }
+
+    @Test
+    @DisplayName(value = "Cache hits do not borrow a connection")
+    void givenCachedStudent_whenGetStudentById_thenNoConnectionAcquired() {
+        //        given - precondition/setup
+        given(studentRepository.findById(student.getId())).willReturn(Optional.of(student));
+        long initial = connectionsAcquired();
+        studentService.getStudentById(student.getId());
+        long afterMiss = connectionsAcquired();
+        //        when - action/behaviour you want to test
+        studentService.getStudentById(student.getId());
+        //        then - verify the output
+        Assertions.assertThat(afterMiss).isGreaterThan(initial);
+        Assertions.assertThat(connectionsAcquired()).isEqualTo(afterMiss);
+    }
+
+    private long connectionsAcquired() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+}
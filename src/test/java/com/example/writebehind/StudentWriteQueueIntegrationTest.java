@@ -0,0 +1,67 @@
+package com.example.writebehind;
+
+import com.example.MockMvcAsync;
+import com.example.entity.Student;
+import com.example.service.StudentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest(properties = "student.write-behind.enabled=true")
+@AutoConfigureMockMvc
+@DisplayName(value = "Student writes accepted with 202 are applied in the background")
+class StudentWriteQueueIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Test
+    @DisplayName(value = "Accepted create completes and the student can be read")
+    void givenAcceptedCreate_whenPolled_thenCompletedAndSaved() throws Exception {
+        //        given - precondition/setup
+        Student student = Student.builder().firstName("Rinku").lastName("Singh").email("rinku@singh.com").build();
+        //        when - action/behaviour you want to test
+        MvcResult accepted = MockMvcAsync.perform(mockMvc, MockMvcRequestBuilders.post("/api/student")
+                                                                                 .contentType(MediaType.APPLICATION_JSON)
+                                                                                 .content(objectMapper.writeValueAsString(student)))
+                                          .andExpect(MockMvcResultMatchers.status().isAccepted())
+                                          .andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+        JsonNode write = poll(location);
+        //        then - verify the output
+        Assertions.assertThat(write.path("state").asText()).isEqualTo("COMPLETED");
+        Assertions.assertThat(studentService.getStudentById(write.path("studentId").asLong()))
+                  .hasValueSatisfying(saved -> Assertions.assertThat(saved.getEmail()).isEqualTo(student.getEmail()));
+    }
+
+    private JsonNode poll(String location) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(MockMvcRequestBuilders.get(location))
+                                 .andExpect(MockMvcResultMatchers.status().isOk())
+                                 .andReturn().getResponse().getContentAsString();
+            JsonNode write = objectMapper.readTree(body);
+            if (!"PENDING".equals(write.path("state").asText()) || System.currentTimeMillis() > deadline) {
+                return write;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
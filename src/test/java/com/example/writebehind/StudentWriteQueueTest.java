@@ -0,0 +1,138 @@
+package com.example.writebehind;
+
+import com.example.entity.Student;
+import com.example.exception.ResourceAlreadyExistsException;
+import com.example.service.StudentService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName(value = "Student Write Queue Test Suite")
+class StudentWriteQueueTest {
+
+    @Mock
+    private StudentService studentService;
+
+    private StudentWriteQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new StudentWriteQueue(studentService, 2, 10,
+                Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName(value = "Creates of a batch are saved together")
+    void givenCreates_whenApply_thenSavedAsOneBatch() {
+        //        given - precondition/setup
+        StudentWrite virat = new StudentWrite("1", StudentWrite.Type.CREATE, student(0, "virat@kohli.com"));
+        StudentWrite rohit = new StudentWrite("2", StudentWrite.Type.CREATE, student(0, "rohit@sharma.com"));
+        BDDMockito.given(studentService.saveStudents(ArgumentMatchers.anyList()))
+                  .willReturn(Arrays.asList(student(11, "virat@kohli.com"), student(12, "rohit@sharma.com")));
+        //        when - action/behaviour you want to test
+        queue.apply(Arrays.asList(virat, rohit));
+        //        then - verify the output
+        Assertions.assertThat(virat.getState()).isEqualTo(StudentWrite.State.COMPLETED);
+        Assertions.assertThat(virat.getStudentId()).isEqualTo(11L);
+        Assertions.assertThat(rohit.getStudentId()).isEqualTo(12L);
+        BDDMockito.then(studentService).should(BDDMockito.never()).saveStudent(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName(value = "A failing batch is retried one by one and only the bad write fails")
+    void givenDuplicateInBatch_whenApply_thenOnlyDuplicateFails() {
+        //        given - precondition/setup
+        Student viratStudent = student(0, "virat@kohli.com");
+        Student duplicateStudent = student(0, "taken@example.com");
+        StudentWrite virat = new StudentWrite("1", StudentWrite.Type.CREATE, viratStudent);
+        StudentWrite duplicate = new StudentWrite("2", StudentWrite.Type.CREATE, duplicateStudent);
+        BDDMockito.given(studentService.saveStudents(ArgumentMatchers.anyList()))
+                  .willThrow(new ResourceAlreadyExistsException("Student with given email already exists taken@example.com"));
+        BDDMockito.given(studentService.saveStudent(viratStudent)).willReturn(student(11, "virat@kohli.com"));
+        BDDMockito.given(studentService.saveStudent(duplicateStudent))
+                  .willThrow(new ResourceAlreadyExistsException("Student with given email already exists taken@example.com"));
+        //        when - action/behaviour you want to test
+        queue.apply(Arrays.asList(virat, duplicate));
+        //        then - verify the output
+        Assertions.assertThat(virat.getState()).isEqualTo(StudentWrite.State.COMPLETED);
+        Assertions.assertThat(duplicate.getState()).isEqualTo(StudentWrite.State.FAILED);
+        Assertions.assertThat(duplicate.getError()).contains("already exists");
+    }
+
+    @Test
+    @DisplayName(value = "Updates to the same student are coalesced into the last one")
+    void givenUpdatesToSameStudent_whenApply_thenOnlyLastApplied() {
+        //        given - precondition/setup
+        Student first = student(5, "first@example.com");
+        Student last = student(5, "last@example.com");
+        StudentWrite firstUpdate = new StudentWrite("1", StudentWrite.Type.UPDATE, first);
+        StudentWrite lastUpdate = new StudentWrite("2", StudentWrite.Type.UPDATE, last);
+        Student updated = student(5, "last@example.com");
+        updated.setVersion(1);
+        BDDMockito.given(studentService.updateStudents(Collections.singletonList(last))).willReturn(Collections.singletonList(updated));
+        //        when - action/behaviour you want to test
+        queue.apply(Arrays.asList(firstUpdate, lastUpdate));
+        //        then - verify the output
+        BDDMockito.then(studentService).should(BDDMockito.never()).updateStudent(ArgumentMatchers.any());
+        Assertions.assertThat(Arrays.asList(firstUpdate, lastUpdate))
+                  .extracting(StudentWrite::getState, StudentWrite::getVersion)
+                  .containsOnly(Assertions.tuple(StudentWrite.State.COMPLETED, 1L));
+    }
+
+    @Test
+    @DisplayName(value = "A queue that is not running rejects writes")
+    void givenStoppedQueue_whenCreate_thenRejected() {
+        //        when - action/behaviour you want to test
+        //        then - verify the output
+        Assertions.assertThatThrownBy(() -> queue.create(student(0, "late@example.com"))).isInstanceOf(TaskRejectedException.class);
+    }
+
+    @Test
+    @DisplayName(value = "A full queue rejects writes and shutdown drains the accepted ones")
+    void givenFullQueue_whenCreate_thenRejectedAndDrainedOnStop() throws Exception {
+        //        given - precondition/setup
+        CountDownLatch release = new CountDownLatch(1);
+        BDDMockito.given(studentService.saveStudents(ArgumentMatchers.anyList())).willAnswer(invocation -> {
+            release.await();
+            List<Student> students = invocation.getArgument(0);
+            students.forEach(student -> student.setId(21));
+            return students;
+        });
+        queue.start();
+        List<StudentWrite> accepted = new ArrayList<>();
+        //        when - action/behaviour you want to test
+        // the worker holds at most one batch while blocked, so the capacity of two is exceeded within a few writes
+        Assertions.assertThatThrownBy(() -> {
+            for (int i = 0; i < 100; i++) {
+                accepted.add(queue.create(student(0, "student" + i + "@example.com")));
+            }
+        }).isInstanceOf(TaskRejectedException.class);
+        release.countDown();
+        queue.stop();
+        //        then - verify the output
+        Assertions.assertThat(queue.isRunning()).isFalse();
+        Assertions.assertThat(queue.size()).isZero();
+        Assertions.assertThat(accepted).isNotEmpty()
+                  .allSatisfy(write -> Assertions.assertThat(write.getState()).isEqualTo(StudentWrite.State.COMPLETED));
+        Assertions.assertThat(queue.getWrite(accepted.get(0).getTrackingId())).containsSame(accepted.get(0));
+    }
+
+    private static Student student(long id, String email) {
+        return new Student(id, "first", "last", email, 0);
+    }
+}